@@ -0,0 +1,157 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.BoggleSolverService;
+import main.Dictionary;
+import main.DictionaryParser;
+
+/**
+ * Measures the throughput of solving many small boards, 4x4 to 8x8, either
+ * one at a time with the parallel or linear solver, all at once with a
+ * BoggleSolverService, or all at once in a single walk of the dictionary. Boards are generated with a fixed seed. The service's
+ * own throughput and latency statistics are printed after each trial.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchSolveBenchmark {
+	private static final int BATCH_SIZE = 1000;
+	private static final long SEED = 42;
+	
+	/**
+	 * The boards to solve and the dictionary to solve them with
+	 */
+	@State(Scope.Benchmark)
+	public static class Batch {
+		Dictionary dictionary;
+		List<String[][]> letters;
+		
+		@Setup
+		public void initialize() {
+			dictionary = DictionaryParser.parseDictionary(3);
+			letters = new ArrayList<String[][]>();
+			Random random = new Random(SEED);
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				int size = 4 + random.nextInt(5);
+				letters.add(BoggleBoard.generateRandomBoard(size, size, random));
+			}
+		}
+	}
+	
+	/**
+	 * The service that batches are submitted to
+	 */
+	@State(Scope.Benchmark)
+	public static class Service {
+		/**
+		 * Number of workers of the service
+		 */
+		@Param({"1", "2", "4", "8"})
+		public int threads;
+		
+		BoggleSolverService service;
+		
+		@Setup
+		public void initialize(Batch batch) {
+			service = new BoggleSolverService(batch.dictionary, threads);
+		}
+		
+		@TearDown
+		public void close() {
+			System.out.println(service.getStats());
+			service.close();
+		}
+	}
+	
+	/**
+	 * Solves each board of the batch in turn with BoggleBot.solveBoard
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int solveEach(Batch batch) {
+		int solutions = 0;
+		for (String[][] board : batch.letters) {
+			BoggleBoard solved = new BoggleBoard(board);
+			BoggleBot.solveBoard(batch.dictionary, solved);
+			solutions += solved.getSolutions().size();
+		}
+		return solutions;
+	}
+	
+	/**
+	 * Solves the whole batch on the calling thread with
+	 * BoggleBot.solveBoardsLockstep, walking the dictionary once
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int solveLockstep(Batch batch) {
+		List<BoggleBoard> boards = new ArrayList<BoggleBoard>(BATCH_SIZE);
+		for (String[][] board : batch.letters) {
+			boards.add(new BoggleBoard(board));
+		}
+		BoggleBot.solveBoardsLockstep(batch.dictionary, boards);
+		int solutions = 0;
+		for (BoggleBoard solved : boards) {
+			solutions += solved.getSolutions().size();
+		}
+		return solutions;
+	}
+	
+	/**
+	 * Solves each board of the batch in turn on the calling thread with
+	 * BoggleBot.solveBoardLinear, for comparison with solveLockstep
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int solveEachLinear(Batch batch) {
+		int solutions = 0;
+		for (String[][] board : batch.letters) {
+			BoggleBoard solved = new BoggleBoard(board);
+			BoggleBot.solveBoardLinear(batch.dictionary, solved);
+			solutions += solved.getSolutions().size();
+		}
+		return solutions;
+	}
+	
+	/**
+	 * Submits every board of the batch to the service and waits for them all
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public int solveBatch(Batch batch, Service service) {
+		List<BoggleBoard> boards = new ArrayList<BoggleBoard>(BATCH_SIZE);
+		for (String[][] board : batch.letters) {
+			boards.add(new BoggleBoard(board));
+		}
+		int solutions = 0;
+		for (CompletableFuture<BoggleBoard> result : service.service.submitAll(boards)) {
+			solutions += result.join().getSolutions().size();
+		}
+		return solutions;
+	}
+}
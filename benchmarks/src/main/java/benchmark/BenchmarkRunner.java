@@ -0,0 +1,36 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler always attached, so every result
+ * reports the allocation rate and bytes allocated per operation next to its
+ * time. Accepts the usual JMH command line, for example
+ * 
+ *     java -jar target/benchmarks.jar SolveBenchmark -p size=20
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class BenchmarkRunner {
+	
+	/**
+	 * Runs the benchmarks selected by the given JMH command line
+	 * 
+	 * @param args JMH command line options
+	 * @throws CommandLineOptionException if args are not valid JMH options
+	 * @throws RunnerException if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.Dawg;
+import main.DictionaryParser;
+import main.MappedDictionary;
+import main.Trie;
+
+/**
+ * Measures the time taken to load the dictionary in each of the ways the
+ * solver supports.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DictionaryLoadBenchmark {
+	
+	/**
+	 * Image of the dictionary, opened by mapImage()
+	 */
+	private File image;
+	
+	@Setup
+	public void writeImage() throws IOException {
+		image = File.createTempFile("dictionary", ".img");
+		MappedDictionary.write(DictionaryParser.parseDictionary(0), image.getPath());
+	}
+	
+	@TearDown
+	public void deleteImage() {
+		image.delete();
+	}
+	
+	/**
+	 * Parses the dictionary into a trie
+	 */
+	@Benchmark
+	public Trie parseTrie() {
+		return DictionaryParser.parseDictionary(0);
+	}
+	
+	/**
+	 * Parses the dictionary into a DAWG
+	 */
+	@Benchmark
+	public Dawg parseDawg() {
+		return DictionaryParser.parseDictionaryDawg(0);
+	}
+	
+	/**
+	 * Opens a precompiled image of the dictionary
+	 */
+	@Benchmark
+	public MappedDictionary mapImage() throws IOException {
+		return new MappedDictionary(image.getPath());
+	}
+}
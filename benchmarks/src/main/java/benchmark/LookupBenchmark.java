@@ -0,0 +1,132 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.Dictionary;
+import main.DictionaryParser;
+import main.MappedDictionary;
+
+/**
+ * Measures the time taken to look up words and prefixes in each kind of
+ * dictionary. Half of the queries are words in the dictionary and half are
+ * words with one letter changed, chosen with a fixed seed so that every run
+ * makes the same queries.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+	private static final int QUERY_COUNT = 1024;
+	private static final long SEED = 42;
+	
+	/**
+	 * Kind of dictionary to query
+	 */
+	@Param({"trie", "dawg", "mapped"})
+	public String dictionaryType;
+	
+	private Dictionary dictionary;
+	private File image;
+	private String[] words;
+	private String[] prefixes;
+	
+	@Setup
+	public void initialize() throws IOException {
+		if (dictionaryType.equals("trie")) {
+			dictionary = DictionaryParser.parseDictionary(0);
+		} else if (dictionaryType.equals("dawg")) {
+			dictionary = DictionaryParser.parseDictionaryDawg(0);
+		} else {
+			image = File.createTempFile("dictionary", ".img");
+			MappedDictionary.write(DictionaryParser.parseDictionary(0), image.getPath());
+			dictionary = new MappedDictionary(image.getPath());
+		}
+		
+		List<String> dictionaryWords = new ArrayList<String>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				DictionaryParser.class.getResourceAsStream("/resources/dictionary.txt"),
+				StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				dictionaryWords.add(line);
+			}
+		}
+		Random random = new Random(SEED);
+		words = new String[QUERY_COUNT];
+		prefixes = new String[QUERY_COUNT];
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			String word = dictionaryWords.get(random.nextInt(dictionaryWords.size()));
+			if (i % 2 == 1) {
+				char[] letters = word.toCharArray();
+				letters[random.nextInt(letters.length)] = (char) ('a' + random.nextInt(26));
+				word = new String(letters);
+			}
+			words[i] = word;
+			prefixes[i] = word.substring(0, 1 + random.nextInt(word.length()));
+		}
+	}
+	
+	@TearDown
+	public void deleteImage() {
+		if (image != null) {
+			image.delete();
+		}
+	}
+	
+	/**
+	 * Looks up whether each query is a word
+	 */
+	@Benchmark
+	@OperationsPerInvocation(QUERY_COUNT)
+	public int containsWord() {
+		int found = 0;
+		for (String word : words) {
+			if (dictionary.containsWord(word)) {
+				found++;
+			}
+		}
+		return found;
+	}
+	
+	/**
+	 * Looks up whether each query is the prefix of a word
+	 */
+	@Benchmark
+	@OperationsPerInvocation(QUERY_COUNT)
+	public int containsPrefix() {
+		int found = 0;
+		for (String prefix : prefixes) {
+			if (dictionary.containsPrefix(prefix)) {
+				found++;
+			}
+		}
+		return found;
+	}
+}
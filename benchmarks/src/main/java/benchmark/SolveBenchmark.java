@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.Dictionary;
+import main.DictionaryParser;
+import main.SolveMode;
+
+/**
+ * Measures the time taken to solve boards of several sizes, linearly and in
+ * parallel with several thread counts. Boards are generated with a fixed seed
+ * so that every run solves the same boards. Each operation solves a new
+ * board, so no solve is deduplicated against an earlier solve's results, and
+ * includes reading the solutions back.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+	private static final long SEED = 42;
+	
+	/**
+	 * The board to solve and the dictionary to solve it with
+	 */
+	@State(Scope.Benchmark)
+	public static class Board {
+		/**
+		 * Width and height of the board
+		 */
+		@Param({"4", "10", "20", "50"})
+		public int size;
+		
+		Dictionary dictionary;
+		String[][] letters;
+		
+		@Setup
+		public void initialize() {
+			dictionary = DictionaryParser.parseDictionary(3);
+			letters = BoggleBoard.generateRandomBoard(size, size, new Random(SEED + size));
+		}
+	}
+	
+	/**
+	 * The pool that parallel solves run in
+	 */
+	@State(Scope.Benchmark)
+	public static class Pool {
+		/**
+		 * Number of threads in the pool
+		 */
+		@Param({"1", "2", "4", "8"})
+		public int threads;
+		
+		ForkJoinPool pool;
+		
+		@Setup
+		public void initialize() {
+			pool = new ForkJoinPool(threads);
+		}
+		
+		@TearDown
+		public void shutdown() {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Solves the board on the calling thread
+	 */
+	@Benchmark
+	public int solveBoardLinear(Board board) {
+		BoggleBoard solved = new BoggleBoard(board.letters);
+		BoggleBot.solveBoardLinear(board.dictionary, solved);
+		return solved.getSolutions().size();
+	}
+	
+	/**
+	 * Solves the board in parallel, in a pool of the given size
+	 */
+	@Benchmark
+	public int solveBoard(Board board, Pool pool) {
+		BoggleBoard solved = new BoggleBoard(board.letters);
+		BoggleBot.solveBoard(board.dictionary, solved, SolveMode.ALL_PATHS, 0,
+				BoggleBot.NO_MAX_LENGTH, pool.pool);
+		return solved.getSolutions().size();
+	}
+}
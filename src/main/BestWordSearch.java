@@ -0,0 +1,246 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Finds the best-scoring distinct words of a board by branch and bound. The
+ * best words found so far are kept in a min-heap of bounded size, whose head
+ * is the worst of them. Each dictionary node reports the length of its
+ * longest suffix, so a path can score at most the best points of any length
+ * between its own and its own plus that suffix. Once the heap is full, any
+ * path that cannot score more than the head is abandoned, and the search
+ * stops outright once the head scores as much as any word can.
+ *
+ * Only words that beat the head enter a full heap, so of several words tied
+ * with the last word kept, the first found are kept.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class BestWordSearch {
+	private static final int INITIAL_DEPTH = 16;
+
+	private final Dictionary dictionary;
+	private final BoggleBoard board;
+	private final TileAlphabet alphabet;
+	private final TileTransitions transitions;
+	private final ScoringTable table;
+	private final int minLength;
+	private final int maxLength;
+	private final int capacity;
+	/**
+	 * Most points any word the search may find can score
+	 */
+	private final int bestPossible;
+	/**
+	 * The best words found so far, worst first, and their letters
+	 */
+	private final PriorityQueue<Candidate> best;
+	private final Set<String> bestWords;
+	private int found;
+
+	/**
+	 * Search state: the cells, dictionary nodes, next neighbor to try and
+	 * number of letters of the current path at each depth, and the cells on
+	 * the current path
+	 */
+	private int[] cells;
+	private int[] nodes;
+	private int[] neighbors;
+	private int[] wordLengths;
+	private final long[] visited;
+
+	/**
+	 * Creates a search for the best words of the given board
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param table Gives the points of each word
+	 * @param minLength Minimum number of letters in words to find
+	 * @param maxLength Maximum number of letters in words to find
+	 * @param capacity Number of words to find, at least 1
+	 */
+	BestWordSearch(Dictionary dictionary, BoggleBoard board, ScoringTable table, int minLength,
+			int maxLength, int capacity) {
+		this.dictionary = dictionary;
+		this.board = board;
+		alphabet = board.alphabet;
+		transitions = alphabet.getTransitions(dictionary);
+		this.table = table;
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.capacity = capacity;
+		bestPossible = table.getMaxPoints(minLength,
+				Math.min(maxLength, dictionary.getMaxWordLength()));
+		best = new PriorityQueue<Candidate>(capacity + 1);
+		bestWords = new HashSet<String>();
+		cells = new int[INITIAL_DEPTH];
+		nodes = new int[INITIAL_DEPTH];
+		neighbors = new int[INITIAL_DEPTH];
+		wordLengths = new int[INITIAL_DEPTH];
+		visited = new long[(board.tiles.length + 63) / 64];
+	}
+
+	/**
+	 * Finds the best words of the board
+	 *
+	 * @return One path for each of the best words found, in the order of
+	 *         BogglePathScoreComparator by this search's scores
+	 */
+	List<BogglePath> solve() {
+		byte[] tiles = board.tiles;
+		for (int start = 0; start < tiles.length && !isSettled(); start++) {
+			int node = step(dictionary.getRoot(), tiles[start]);
+			int length = alphabet.lengths[tiles[start]];
+			if (node == Dictionary.NO_NODE || !isPromising(node, length)) {
+				continue;
+			}
+			int depth = 0;
+			push(depth, start, node, length);
+			offer(depth);
+			while (depth >= 0) {
+				int cell = cells[depth];
+				int neighbor = neighbors[depth];
+				if (neighbor == board.adjacencyStarts[cell + 1] || isSettled()) {
+					visited[cell >>> 6] &= ~(1L << cell);
+					depth--;
+					continue;
+				}
+				neighbors[depth] = neighbor + 1;
+				int nextCell = board.adjacency[neighbor];
+				if ((visited[nextCell >>> 6] & (1L << nextCell)) != 0) {
+					continue;
+				}
+				int nextNode = step(nodes[depth], tiles[nextCell]);
+				int nextLength = wordLengths[depth] + alphabet.lengths[tiles[nextCell]];
+				if (nextNode == Dictionary.NO_NODE || !isPromising(nextNode, nextLength)) {
+					continue;
+				}
+				depth++;
+				push(depth, nextCell, nextNode, nextLength);
+				offer(depth);
+			}
+		}
+		List<Candidate> kept = new ArrayList<Candidate>(best);
+		Collections.sort(kept, (a, b) -> a.score != b.score ? Integer.compare(b.score, a.score)
+				: a.word.compareTo(b.word));
+		List<BogglePath> paths = new ArrayList<BogglePath>(kept.size());
+		for (Candidate candidate : kept) {
+			paths.add(board.createPath(candidate.cells, candidate.cells.length, candidate.word));
+		}
+		return paths;
+	}
+
+	/**
+	 * Keeps the word spelled by the current path, ending at the given depth,
+	 * if it is one of the best found so far
+	 */
+	private void offer(int depth) {
+		int length = wordLengths[depth];
+		if (!dictionary.isWord(nodes[depth]) || length < minLength) {
+			return;
+		}
+		int score = table.getPoints(length);
+		if (best.size() == capacity && score <= best.peek().score) {
+			return;
+		}
+		String word = wordOf(depth, length);
+		if (!bestWords.add(word)) {
+			return;
+		}
+		best.add(new Candidate(word, Arrays.copyOf(cells, depth + 1), score, found++));
+		if (best.size() > capacity) {
+			bestWords.remove(best.poll().word);
+		}
+	}
+
+	/**
+	 * Returns false if no word below the given node, reached by a path with
+	 * the given number of letters, can be kept
+	 */
+	private boolean isPromising(int node, int length) {
+		if (length > maxLength || !BoggleSearch.canComplete(dictionary, board, node)) {
+			return false;
+		}
+		int suffix = dictionary.getMaxSuffixLength(node);
+		int longest = suffix >= maxLength - length ? maxLength : length + suffix;
+		int bound = table.getMaxPoints(Math.max(length, minLength), longest);
+		return bound >= 0 && (best.size() < capacity || bound > best.peek().score);
+	}
+
+	/**
+	 * Returns true iff no word left to find could be kept
+	 */
+	private boolean isSettled() {
+		return best.size() == capacity && best.peek().score >= bestPossible;
+	}
+
+	/**
+	 * Returns the letters spelled by the current path, ending at the given
+	 * depth
+	 */
+	private String wordOf(int depth, int length) {
+		char[] letters = new char[length];
+		int letter = 0;
+		for (int i = 0; i <= depth; i++) {
+			letter = alphabet.spell(board.tiles[cells[i]], letters, letter);
+		}
+		return new String(letters);
+	}
+
+	/**
+	 * Places the given cell on the path at the given depth and marks it as
+	 * visited
+	 */
+	private void push(int depth, int cell, int node, int wordLength) {
+		if (depth == cells.length) {
+			cells = Arrays.copyOf(cells, depth * 2);
+			nodes = Arrays.copyOf(nodes, depth * 2);
+			neighbors = Arrays.copyOf(neighbors, depth * 2);
+			wordLengths = Arrays.copyOf(wordLengths, depth * 2);
+		}
+		cells[depth] = cell;
+		nodes[depth] = node;
+		neighbors[depth] = board.adjacencyStarts[cell];
+		wordLengths[depth] = wordLength;
+		visited[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * Returns the dictionary node reached by following the letters of the
+	 * given tile from the given node, or Dictionary.NO_NODE if there is none
+	 */
+	private int step(int node, byte tile) {
+		return transitions.step(dictionary, node, tile);
+	}
+
+	/**
+	 * A word kept by the search, with the path that spells it. The worst
+	 * candidates order first: lower scores, then, among equal scores, the
+	 * last found
+	 */
+	private static class Candidate implements Comparable<Candidate> {
+		private final String word;
+		private final int[] cells;
+		private final int score;
+		private final int order;
+
+		private Candidate(String word, int[] cells, int score, int order) {
+			this.word = word;
+			this.cells = cells;
+			this.score = score;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			return score != other.score ? Integer.compare(score, other.score)
+					: Integer.compare(other.order, order);
+		}
+	}
+}
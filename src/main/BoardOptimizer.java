@@ -0,0 +1,198 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Searches for boards with a high total score, or with many words, by
+ * simulated annealing. Each step replaces one random tile of the current
+ * board with a random letter, drawn with the same frequencies as random
+ * boards, and keeps the change if it improves the board, or otherwise with a
+ * probability that shrinks as the change gets worse and as the temperature
+ * cools. The best board seen is kept.
+ *
+ * Boards are scored without creating any solutions, and after each change
+ * only the paths through the changed space are scored again, so each step
+ * costs in proportion to the neighborhood of one space. Several independent
+ * chains, each starting from its own random board, run in parallel.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class BoardOptimizer {
+	/**
+	 * Temperature at the first and the last step of each chain, in points of
+	 * score. Changes that lose about this much are accepted a third of the
+	 * time
+	 */
+	private static final double START_TEMPERATURE = 4;
+	private static final double END_TEMPERATURE = 0.05;
+
+	private final Dictionary dictionary;
+	private final int width;
+	private final int height;
+	private final OptimizationGoal goal;
+
+	/**
+	 * Creates an optimizer of boards of the given size
+	 *
+	 * @param dictionary Contains a dictionary of which words to score
+	 * @param width Width of the boards to be searched
+	 * @param height Height of the boards to be searched
+	 * @param goal What to maximize
+	 * @throws IllegalArgumentException if width or height are less than 1
+	 */
+	public BoardOptimizer(Dictionary dictionary, int width, int height, OptimizationGoal goal) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("Board must have number of "
+					+ "rows and cols greater than 0");
+		}
+		this.dictionary = dictionary;
+		this.width = width;
+		this.height = height;
+		this.goal = goal;
+	}
+
+	/**
+	 * Runs the given number of chains in parallel in the pool that BoggleBot
+	 * solves boards with, each for the given number of steps, and returns the
+	 * best board found
+	 *
+	 * @param chains Number of independent chains to run
+	 * @param steps Number of steps each chain takes
+	 * @param seed Seed of the random numbers of the chains, so that the same
+	 *        seed finds the same board
+	 * @return The best board found by any chain
+	 * @throws IllegalArgumentException if chains is less than 1 or steps is
+	 *         negative
+	 */
+	public OptimizerResult optimize(int chains, int steps, long seed) {
+		return optimize(chains, steps, seed, BoggleBot.POOL);
+	}
+
+	/**
+	 * Runs the given number of chains in parallel in the given pool, each for
+	 * the given number of steps, and returns the best board found
+	 *
+	 * @param chains Number of independent chains to run
+	 * @param steps Number of steps each chain takes
+	 * @param seed Seed of the random numbers of the chains, so that the same
+	 *        seed finds the same board
+	 * @param pool The pool whose threads will run the chains
+	 * @return The best board found by any chain
+	 * @throws IllegalArgumentException if chains is less than 1 or steps is
+	 *         negative
+	 */
+	public OptimizerResult optimize(int chains, int steps, long seed, ForkJoinPool pool) {
+		if (chains < 1 || steps < 0) {
+			throw new IllegalArgumentException("Must run at least one chain "
+					+ "and a non-negative number of steps");
+		}
+		long start = System.nanoTime();
+		List<Callable<Chain>> tasks = new ArrayList<Callable<Chain>>();
+		for (int i = 0; i < chains; i++) {
+			long chainSeed = seed + i;
+			tasks.add(() -> runChain(steps, new Random(chainSeed)));
+		}
+		Chain best = null;
+		long evaluations = 0;
+		for (Future<Chain> future : pool.invokeAll(tasks)) {
+			Chain chain;
+			try {
+				chain = future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while optimizing", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Optimization failed", e.getCause());
+			}
+			evaluations += chain.evaluations;
+			if (best == null || chain.bestScore > best.bestScore) {
+				best = chain;
+			}
+		}
+		String[][] letters = new String[height][width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				letters[y][x] = best.board.get(x, y);
+			}
+		}
+		return new OptimizerResult(letters, best.bestScore, evaluations,
+				System.nanoTime() - start);
+	}
+
+	/**
+	 * Runs one chain from a random board for the given number of steps
+	 *
+	 * @param steps Number of steps to take
+	 * @param random Source of the chain's random numbers
+	 * @return The best board found by the chain
+	 */
+	private Chain runChain(int steps, Random random) {
+		BoggleBoard board = new BoggleBoard(BoggleBoard.generateRandomBoard(width, height, random));
+		BoardScorer scorer = new BoardScorer(dictionary, board, goal);
+		Chain chain = new Chain(board);
+		int score = scorer.getScore();
+		chain.keep(score);
+		for (int step = 0; step < steps; step++) {
+			double temperature = START_TEMPERATURE *
+					Math.pow(END_TEMPERATURE / START_TEMPERATURE, (double) step / steps);
+			int cell = random.nextInt(board.tiles.length);
+			byte tile = board.tileCode(board.alphabet.randomTile(random));
+			if (tile == board.tiles[cell]) {
+				continue;
+			}
+			int next = scorer.replace(cell, tile);
+			chain.evaluations++;
+			if (next >= score || random.nextDouble() < Math.exp((next - score) / temperature)) {
+				score = next;
+				if (score > chain.bestScore) {
+					chain.keep(score);
+				}
+			} else {
+				scorer.undo();
+			}
+		}
+		chain.restoreBest();
+		return chain;
+	}
+
+	/**
+	 * The board of one chain, the best tiles it has held and the number of
+	 * boards the chain has evaluated
+	 */
+	private static class Chain {
+		private final BoggleBoard board;
+		private final byte[] bestTiles;
+		private int bestScore;
+		private long evaluations;
+
+		private Chain(BoggleBoard board) {
+			this.board = board;
+			bestTiles = new byte[board.tiles.length];
+			evaluations = 1;
+		}
+
+		/**
+		 * Records the board's current tiles, which have the given score, as
+		 * the best found
+		 */
+		private void keep(int score) {
+			System.arraycopy(board.tiles, 0, bestTiles, 0, bestTiles.length);
+			bestScore = score;
+		}
+
+		/**
+		 * Puts the best tiles found back on the board
+		 */
+		private void restoreBest() {
+			for (int cell = 0; cell < bestTiles.length; cell++) {
+				board.replaceTileCode(cell, bestTiles[cell]);
+			}
+		}
+	}
+}
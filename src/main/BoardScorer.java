@@ -0,0 +1,300 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Scores a board without creating any BogglePath, and keeps the score up to
+ * date as single tiles of the board are replaced. Every path spelling a word
+ * is counted against the word's id; a word adds its value to the score while
+ * at least one path spells it, so each distinct word is counted once.
+ *
+ * When a tile is replaced, only the paths through its space can change, so
+ * those paths are uncounted before the change and counted again after it.
+ * The ids counted are journaled, so the last replacement can be undone
+ * without searching again.
+ *
+ * A word's id is its node in dictionaries whose nodes identify prefixes.
+ * Otherwise it is the word's rank among the dictionary's words in sorted
+ * order, computed from the word counts of the nodes along the word.
+ *
+ * A BoardScorer is used by one thread at a time.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class BoardScorer {
+	private static final int INITIAL_DEPTH = 16;
+
+	private final Dictionary dictionary;
+	private final BoggleBoard board;
+	private final TileTransitions transitions;
+	private final OptimizationGoal goal;
+	private final boolean prefixNodes;
+	/**
+	 * Greatest number of letters in a word that can be found
+	 */
+	private final int limit;
+	/**
+	 * Number of paths currently spelling each word, by id
+	 */
+	private final int[] pathCounts;
+	/**
+	 * Number of letters in each word counted so far, by id
+	 */
+	private final byte[] lengths;
+	/**
+	 * Score of the board: the total value of every word with a path
+	 */
+	private int score;
+	/**
+	 * Ids counted, shifted left once with the low bit set if the count was
+	 * increased, since the last replacement began
+	 */
+	private int[] journal;
+	private int journalSize;
+	/**
+	 * Space changed by the last replacement, and its previous tile code
+	 */
+	private int lastCell;
+	private byte lastTile;
+
+	/**
+	 * Search state: the cells, dictionary nodes, next neighbor to try and
+	 * number of letters of the current path at each depth, and the cells on
+	 * the current path
+	 */
+	private int[] cells;
+	private int[] nodes;
+	private int[] neighbors;
+	private int[] wordLengths;
+	private final long[] visited;
+
+	/**
+	 * Creates a scorer of the given board, and scores it
+	 *
+	 * @param dictionary Contains a dictionary of which words to count
+	 * @param board The board to be scored. It is modified by replace(), and
+	 *        its stored solutions are ignored
+	 * @param goal What the score measures
+	 */
+	BoardScorer(Dictionary dictionary, BoggleBoard board, OptimizationGoal goal) {
+		this.dictionary = dictionary;
+		this.board = board;
+		this.goal = goal;
+		transitions = board.alphabet.getTransitions(dictionary);
+		prefixNodes = dictionary.hasPrefixNodes();
+		limit = dictionary.getMaxWordLength();
+		pathCounts = new int[prefixNodes ? dictionary.getNodeCount()
+				: dictionary.getWordCount(dictionary.getRoot())];
+		lengths = new byte[pathCounts.length];
+		journal = new int[64];
+		cells = new int[INITIAL_DEPTH];
+		nodes = new int[INITIAL_DEPTH];
+		neighbors = new int[INITIAL_DEPTH];
+		wordLengths = new int[INITIAL_DEPTH];
+		visited = new long[(board.tiles.length + 63) / 64];
+		lastCell = -1;
+		for (int cell = 0; cell < board.tiles.length; cell++) {
+			count(cell, -1, 1);
+			journalSize = 0;
+		}
+	}
+
+	/**
+	 * Returns the current score of the board
+	 *
+	 * @return The total value of the distinct words on the board
+	 */
+	int getScore() {
+		return score;
+	}
+
+	/**
+	 * Replaces the tile of the given space and updates the score
+	 *
+	 * @param cell Id of the space to be changed
+	 * @param tile Tile code of the new tile
+	 * @return The new score of the board
+	 */
+	int replace(int cell, byte tile) {
+		journalSize = 0;
+		lastCell = cell;
+		lastTile = board.tiles[cell];
+		countThrough(cell, -1);
+		board.replaceTileCode(cell, tile);
+		countThrough(cell, 1);
+		return score;
+	}
+
+	/**
+	 * Undoes the last replacement, restoring the board's previous tile and
+	 * score. May only be called once after each replacement.
+	 */
+	void undo() {
+		for (int i = journalSize - 1; i >= 0; i--) {
+			adjust(journal[i] >>> 1, (journal[i] & 1) != 0 ? -1 : 1);
+		}
+		journalSize = 0;
+		board.replaceTileCode(lastCell, lastTile);
+		lastCell = -1;
+	}
+
+	/**
+	 * Counts every path through the given space with the given sign, by
+	 * searching from every space close enough to reach it
+	 *
+	 * @param through Id of the space
+	 * @param sign 1 to count the paths, -1 to uncount them
+	 */
+	private void countThrough(int through, int sign) {
+		int width = board.getWidth();
+		int x = through % width;
+		int y = through / width;
+		int radius = limit - 1;
+		for (int row = Math.max(0, y - radius); row <= Math.min(board.getHeight() - 1, y + radius);
+				row++) {
+			for (int column = Math.max(0, x - radius); column <= Math.min(width - 1, x + radius);
+					column++) {
+				count(row * width + column, through, sign);
+			}
+		}
+	}
+
+	/**
+	 * Counts, with the given sign, every path that starts at the given space
+	 * and passes through the given space, if any
+	 *
+	 * @param start Id of the space every path starts at
+	 * @param through Id of the space every path passes through, or -1
+	 * @param sign 1 to count the paths, -1 to uncount them
+	 */
+	private void count(int start, int through, int sign) {
+		byte[] tiles = board.tiles;
+		int node = step(dictionary.getRoot(), tiles[start]);
+		if (node == Dictionary.NO_NODE || !BoggleSearch.canComplete(dictionary, board, node) ||
+				(through >= 0 && distance(start, through) > dictionary.getMaxSuffixLength(node))) {
+			return;
+		}
+		int depth = 0;
+		push(depth, start, node, 0);
+		if (isVisited(through) && dictionary.isWord(node)) {
+			countWord(depth, sign);
+		}
+		while (depth >= 0) {
+			int cell = cells[depth];
+			int neighbor = neighbors[depth];
+			if (neighbor == board.adjacencyStarts[cell + 1]) {
+				visited[cell >>> 6] &= ~(1L << cell);
+				depth--;
+				continue;
+			}
+			neighbors[depth] = neighbor + 1;
+			int nextCell = board.adjacency[neighbor];
+			if ((visited[nextCell >>> 6] & (1L << nextCell)) != 0) {
+				continue;
+			}
+			int nextNode = step(nodes[depth], tiles[nextCell]);
+			if (nextNode == Dictionary.NO_NODE ||
+					!BoggleSearch.canComplete(dictionary, board, nextNode)) {
+				continue;
+			}
+			// A path that has yet to pass through the space must be able to
+			// reach it, one letter per space at least, before its words end
+			if (through >= 0 && !isVisited(through) &&
+					distance(nextCell, through) > dictionary.getMaxSuffixLength(nextNode)) {
+				continue;
+			}
+			depth++;
+			push(depth, nextCell, nextNode, wordLengths[depth - 1]);
+			if (isVisited(through) && dictionary.isWord(nextNode)) {
+				countWord(depth, sign);
+			}
+		}
+	}
+
+	/**
+	 * Counts the word spelled by the current path, ending at the given depth
+	 */
+	private void countWord(int depth, int sign) {
+		int id = prefixNodes ? nodes[depth] : rank(depth);
+		if (journalSize == journal.length) {
+			journal = Arrays.copyOf(journal, journalSize * 2);
+		}
+		journal[journalSize++] = id << 1 | (sign > 0 ? 1 : 0);
+		lengths[id] = (byte) Math.min(wordLengths[depth], Byte.MAX_VALUE);
+		adjust(id, sign);
+	}
+
+	/**
+	 * Changes the number of paths spelling the word with the given id, and
+	 * updates the score if the word appears or disappears
+	 */
+	private void adjust(int id, int sign) {
+		int count = pathCounts[id] += sign;
+		if (count == 0 || (count == 1 && sign > 0)) {
+			score += sign * valueOf(id);
+		}
+	}
+
+	/**
+	 * Returns the value of the word with the given id, toward the goal
+	 */
+	private int valueOf(int id) {
+		int points = ScoringTable.STANDARD.getPoints(lengths[id]);
+		return goal == OptimizationGoal.TOTAL_SCORE ? points : (points > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Returns the rank of the word spelled by the current path, ending at the
+	 * given depth, among the dictionary's words in sorted order
+	 */
+	private int rank(int depth) {
+		int rank = 0;
+		int node = dictionary.getRoot();
+		for (int i = 0; i <= depth; i++) {
+			rank += TallySearch.rankStep(dictionary, board.alphabet, node, board.tiles[cells[i]]);
+			node = nodes[i];
+		}
+		return rank;
+	}
+
+	/**
+	 * Places the given cell on the path at the given depth and marks it as
+	 * visited
+	 */
+	private void push(int depth, int cell, int node, int wordLength) {
+		if (depth == cells.length) {
+			cells = Arrays.copyOf(cells, depth * 2);
+			nodes = Arrays.copyOf(nodes, depth * 2);
+			neighbors = Arrays.copyOf(neighbors, depth * 2);
+			wordLengths = Arrays.copyOf(wordLengths, depth * 2);
+		}
+		cells[depth] = cell;
+		nodes[depth] = node;
+		neighbors[depth] = board.adjacencyStarts[cell];
+		wordLengths[depth] = wordLength + board.alphabet.lengths[board.tiles[cell]];
+		visited[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * Returns true iff the given cell is on the current path, or is -1
+	 */
+	private boolean isVisited(int cell) {
+		return cell < 0 || (visited[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Returns the number of steps between the given cells of the board
+	 */
+	private int distance(int from, int to) {
+		int width = board.getWidth();
+		return Math.max(Math.abs(from % width - to % width), Math.abs(from / width - to / width));
+	}
+
+	/**
+	 * Returns the dictionary node reached by following the letters of the
+	 * given tile from the given node, or Dictionary.NO_NODE if there is none
+	 */
+	private int step(int node, byte tile) {
+		return transitions.step(dictionary, node, tile);
+	}
+}
@@ -3,6 +3,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
 /**
  * Class representing a Boggle board and its solutions. Boards can be randomly
  * generated or specified. Contains methods for adding and getting solutions,
@@ -13,16 +15,57 @@ import java.util.Random;
  */
 public class BoggleBoard {
 	private static final Random RANDOM = new Random();
+	/**
+	 * Offsets of the eight neighbors of a space
+	 */
+	private static final int[] DX = {1, -1, 0, 0, 1, -1, -1, 1};
+	private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
 	
 	/**
-	 * Stores characters that make up board
+	 * Width and height of this board
+	 */
+	private int width;
+	private int height;
+	/**
+	 * The tiles the spaces of this board may hold
+	 */
+	TileAlphabet alphabet;
+	/**
+	 * Tile code of every space of this board in its alphabet, indexed by cell
+	 * id. The cell id of the space at (x, y) is y * width + x
+	 */
+	byte[] tiles;
+	/**
+	 * Neighbors of every space in compressed sparse row form: the cell ids of
+	 * the spaces adjacent to cell c are adjacency[adjacencyStarts[c]] up to,
+	 * but not including, adjacency[adjacencyStarts[c + 1]]
+	 */
+	int[] adjacencyStarts;
+	int[] adjacency;
+	/**
+	 * Letters on at least one space of this board, and letters on at least
+	 * two spaces, as bit masks with bit i set for the letter of index i. A
+	 * space counts once for each letter on its tile, so a "Qu" space counts
+	 * as one "q" and one "u"
+	 */
+	int letters;
+	int repeatedLetters;
+	/**
+	 * Number of spaces of this board holding each tile code
 	 */
-	String[][] board;
+	private int[] tileCounts;
 	/**
 	 * Stores solutions to this board. Solutions are represented as a path
 	 * through the board
 	 */
-	List<BogglePath> solutions;
+	SolutionStore solutions;
+	/**
+	 * If this board is a tile copied out of a larger board, the larger board
+	 * and the position of this board's top left space within it, else null
+	 */
+	private BoggleBoard parent;
+	private int originX;
+	private int originY;
 	
 	/**
 	 * Creates a board out of the given 2D array of characters
@@ -34,6 +77,21 @@ public class BoggleBoard {
 	 * 		   or Qu
 	 */
 	public BoggleBoard(String[][] board) {
+		this(board, TileAlphabet.STANDARD);
+	}
+	
+	/**
+	 * Creates a board out of the given 2D array of tiles of the given
+	 * alphabet
+	 * 
+	 * @param board Tiles that will make up the given board
+	 * @param alphabet The tiles the board's spaces may hold
+	 * @throws IllegalArgumentException if supplied board has width or height 
+	 * 		   of 0 or if rows of supplied board are of inconsistent length or
+	 * 		   if the board contains any strings that are not tiles of the
+	 * 		   alphabet
+	 */
+	public BoggleBoard(String[][] board, TileAlphabet alphabet) {
 		if (board.length == 0 || board[0].length == 0) {
 			throw new IllegalArgumentException("Board must have number of "
 					+ "rows and cols greater than 0");
@@ -44,16 +102,12 @@ public class BoggleBoard {
 						"Rows of provided board must be of consistent length");
 			}
 			for (String letter : row) {
-				if (!(letter.equals("Qu") || (letter.length() == 1 && 
-						!letter.equals("Q") && 
-						Character.isUpperCase(letter.charAt(0))))) {
-					throw new IllegalArgumentException("Board can only contain "
-							+ "capital letters (except for \"Q\") and \"Qu\"");
-				}
+				checkTile(letter, alphabet);
 			}
 		}
-		this.board = board;
-		solutions = Collections.synchronizedList(new ArrayList<BogglePath>());
+		this.alphabet = alphabet;
+		initialize(board);
+		solutions = new SolutionStore(this);
 	}
 	
 	/**
@@ -65,8 +119,204 @@ public class BoggleBoard {
 	 * @throws IllegalArgumentException if width or height are less than 1
 	 */
 	public BoggleBoard(int width, int height) {
-		board = generateRandomBoard(width, height);
-		solutions = Collections.synchronizedList(new ArrayList<BogglePath>());
+		alphabet = TileAlphabet.STANDARD;
+		initialize(generateRandomBoard(width, height));
+		solutions = new SolutionStore(this);
+	}
+	
+	/**
+	 * Creates a board holding a copy of the given rectangle of spaces of the
+	 * given board. Solutions found in the new board are stored in the given
+	 * board, in its coordinates. Lets a large board be solved one small,
+	 * compact tile at a time.
+	 * 
+	 * @param parent The board to copy spaces from
+	 * @param x X coordinate in parent of the top left space to copy
+	 * @param y Y coordinate in parent of the top left space to copy
+	 * @param width Width of the rectangle to copy
+	 * @param height Height of the rectangle to copy
+	 */
+	BoggleBoard(BoggleBoard parent, int x, int y, int width, int height) {
+		this.width = width;
+		this.height = height;
+		tiles = new byte[width * height];
+		for (int row = 0; row < height; row++) {
+			System.arraycopy(parent.tiles, (y + row) * parent.width + x, tiles,
+					row * width, width);
+		}
+		alphabet = parent.alphabet;
+		initializeAdjacency();
+		this.parent = parent;
+		originX = x;
+		originY = y;
+		solutions = parent.solutions;
+	}
+	
+	/**
+	 * Stores the tile codes of the given board and precomputes the neighbors
+	 * of each of its spaces
+	 * 
+	 * @param board Valid strings that will make up this board
+	 */
+	private void initialize(String[][] board) {
+		height = board.length;
+		width = board[0].length;
+		tiles = new byte[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				tiles[y * width + x] = alphabet.codeOf(board[y][x]);
+			}
+		}
+		initializeAdjacency();
+	}
+	
+	/**
+	 * Precomputes the neighbors of each space of this board from its width
+	 * and height
+	 */
+	private void initializeAdjacency() {
+		adjacencyStarts = new int[tiles.length + 1];
+		adjacency = new int[tiles.length * DX.length];
+		int size = 0;
+		for (int cell = 0; cell < tiles.length; cell++) {
+			adjacencyStarts[cell] = size;
+			int x = cell % width;
+			int y = cell / width;
+			for (int i = 0; i < DX.length; i++) {
+				if (containsPoint(x + DX[i], y + DY[i])) {
+					adjacency[size++] = (y + DY[i]) * width + x + DX[i];
+				}
+			}
+		}
+		adjacencyStarts[tiles.length] = size;
+		initializeLetters();
+	}
+	
+	/**
+	 * Counts the spaces of this board holding each tile, then records which
+	 * letters appear on them
+	 */
+	private void initializeLetters() {
+		tileCounts = new int[alphabet.size()];
+		for (byte tile : tiles) {
+			tileCounts[tile]++;
+		}
+		updateLetters();
+	}
+	
+	/**
+	 * Records which letters appear on the spaces of this board, and which
+	 * appear more than once, from the number of spaces holding each tile
+	 */
+	private void updateLetters() {
+		letters = 0;
+		repeatedLetters = 0;
+		for (byte tile = 0; tile < tileCounts.length; tile++) {
+			if (tileCounts[tile] == 0) {
+				continue;
+			}
+			for (byte letter : alphabet.getLetters(tile)) {
+				int bit = 1 << letter;
+				// A letter already seen, on this tile or another, or on more
+				// than one space, is repeated
+				if (tileCounts[tile] > 1 || (letters & bit) != 0) {
+					repeatedLetters |= bit;
+				}
+				letters |= bit;
+			}
+		}
+	}
+	
+	/**
+	 * Replaces the tile of the given space and removes every stored solution
+	 * whose path passes through the space, since its word may have changed.
+	 * Solutions stored in a tile of this board are not affected.
+	 * 
+	 * @param cell Id of the space to be changed
+	 * @param tile Tile code of the new tile
+	 * @return The solutions removed
+	 */
+	List<BogglePath> setTile(int cell, byte tile) {
+		replaceTileCode(cell, tile);
+		return solutions.removeThrough(cell);
+	}
+	
+	/**
+	 * Replaces the tile of the given space, leaving the stored solutions as
+	 * they are
+	 * 
+	 * @param cell Id of the space to be changed
+	 * @param tile Tile code of the new tile
+	 */
+	void replaceTileCode(int cell, byte tile) {
+		tileCounts[tiles[cell]]--;
+		tiles[cell] = tile;
+		tileCounts[tile]++;
+		updateLetters();
+	}
+	
+	/**
+	 * Returns the tile code of the given tile in this board's alphabet
+	 * 
+	 * @param tile A tile of this board's alphabet
+	 * @return The tile code of tile
+	 * @throws IllegalArgumentException if tile is not a valid tile
+	 */
+	byte tileCode(String tile) {
+		checkTile(tile, alphabet);
+		return alphabet.codeOf(tile);
+	}
+	
+	/**
+	 * Checks that the given string is a tile of the given alphabet
+	 * 
+	 * @param tile The string to be checked
+	 * @param alphabet The tiles a board may hold
+	 * @throws IllegalArgumentException if tile is not a valid tile
+	 */
+	private static void checkTile(String tile, TileAlphabet alphabet) {
+		if (alphabet == TileAlphabet.STANDARD && !alphabet.contains(tile)) {
+			throw new IllegalArgumentException("Board can only contain "
+					+ "capital letters (except for \"Q\") and \"Qu\"");
+		}
+		alphabet.codeOf(tile);
+	}
+	
+	/**
+	 * Creates a path in this board that follows the given cells, as the
+	 * package-private BogglePath constructor does. If this board is a tile of
+	 * a larger board, the path is created in the larger board instead, with
+	 * its cells mapped to the larger board's coordinates.
+	 * 
+	 * @param cells Ids of the cells of the path in this board, in order
+	 * @param length Number of cells in the path
+	 * @param word Word formed by the path, in lower case
+	 * @return The path
+	 */
+	BogglePath createPath(int[] cells, int length, String word) {
+		if (parent == null) {
+			return new BogglePath(this, cells, length, word);
+		}
+		int[] parentCells = new int[length];
+		for (int i = 0; i < length; i++) {
+			parentCells[i] = toParentCell(cells[i]);
+		}
+		return parent.createPath(parentCells, length, word);
+	}
+	
+	/**
+	 * Returns the id of the given cell of this board in the board it was
+	 * copied out of, if any
+	 * 
+	 * @param cell Id of a cell of this board
+	 * @return The id of the same cell in the board this board is a tile of,
+	 *         or cell itself if this board is not a tile
+	 */
+	int toParentCell(int cell) {
+		if (parent == null) {
+			return cell;
+		}
+		return (cell / width + originY) * parent.width + cell % width + originX;
 	}
 	
 	/**
@@ -78,14 +328,23 @@ public class BoggleBoard {
 	 * @throws IllegalArgumentException If the provided BogglePath is not a
 	 *         path of this board
 	 */
-	public synchronized void addSolution(BogglePath solution) {
+	public void addSolution(BogglePath solution) {
 		if (this != solution.getBoard()) {
 			throw new IllegalArgumentException("Provided solution is not a path"
 					+ " in this board");
 		}
-		if (!solutions.contains(solution)) {
-			solutions.add(solution);
-		}
+		solutions.addAll(Collections.singletonList(solution));
+	}
+	
+	/**
+	 * Stores every solution in the given batch that is not already stored in
+	 * this board. Takes ownership of the batch, which must not be modified
+	 * afterwards. Never blocks, so it may be called by many solvers at once.
+	 * 
+	 * @param batch BogglePaths representing valid words in this board
+	 */
+	void addSolutions(List<BogglePath> batch) {
+		solutions.addAll(batch);
 	}
 	
 	/**
@@ -96,7 +355,26 @@ public class BoggleBoard {
 	 * 		   word found in this board
 	 */
 	public List<BogglePath> getSolutions() {
-		return new ArrayList<BogglePath>(solutions);
+		return solutions.getSolutions();
+	}
+	
+	/**
+	 * Returns one solution stored in this board for each distinct word, keyed
+	 * and sorted by word. Every path spelling a word has the same score, so
+	 * the path kept for a word is the first one stored. After a solve in
+	 * SolveMode.UNIQUE_WORDS this holds every solution stored by the solve.
+	 * 
+	 * @return A map from each word found in this board to a BogglePath
+	 *         spelling it
+	 */
+	public SortedMap<String, BogglePath> getSolutionsByWord() {
+		SortedMap<String, BogglePath> result = new TreeMap<String, BogglePath>();
+		for (BogglePath solutionPath : getSolutions()) {
+			if (!result.containsKey(solutionPath.getWord())) {
+				result.put(solutionPath.getWord(), solutionPath);
+			}
+		}
+		return result;
 	}
 	
 	/**
@@ -109,7 +387,7 @@ public class BoggleBoard {
 	 */
 	public List<List<Point>> getSolutionPoints() {
 		List<List<Point>> result = new ArrayList<List<Point>>();
-		for (BogglePath solutionPath : solutions) {
+		for (BogglePath solutionPath : getSolutions()) {
 			result.add(solutionPath.getPoints());
 		}
 		return result;
@@ -121,9 +399,9 @@ public class BoggleBoard {
 	 * @return a list of words that represent every solution found in this 
 	 *         board
 	 */
-	public synchronized List<String> getSolutionWords() {
+	public List<String> getSolutionWords() {
 		List<String> result = new ArrayList<String>();
-		for (BogglePath solutionPath : solutions) {
+		for (BogglePath solutionPath : getSolutions()) {
 			result.add(solutionPath.getWord());
 		}
 		return result;
@@ -166,7 +444,16 @@ public class BoggleBoard {
 			throw new IndexOutOfBoundsException("Location specified is out of "
 					+ "this board's range");
 		}
-		return board[y][x];
+		return alphabet.getTile(tiles[y * width + x]);
+	}
+	
+	/**
+	 * Returns the tiles the spaces of this board may hold
+	 * 
+	 * @return The alphabet of this board
+	 */
+	public TileAlphabet getAlphabet() {
+		return alphabet;
 	}
 	
 	/**
@@ -175,7 +462,7 @@ public class BoggleBoard {
 	 * @return the width of this board
 	 */
 	public int getWidth() {
-		return board[0].length;
+		return width;
 	}
 	
 	/**
@@ -184,7 +471,7 @@ public class BoggleBoard {
 	 * @return the height of this board
 	 */
 	public int getHeight() {
-		return board.length;
+		return height;
 	}
 	
 	/**
@@ -197,7 +484,7 @@ public class BoggleBoard {
 	 * 		   false
 	 */
 	public boolean containsPoint(int x, int y) {
-		return x < getWidth() && x >= 0 && y < getHeight() && y >= 0;
+		return x < width && x >= 0 && y < height && y >= 0;
 	}
 	
 	/**
@@ -216,38 +503,32 @@ public class BoggleBoard {
 	 * @param p The point that will have it's adjacent neighbors returned
 	 * @return A list of points located in all directions adjacent to the 
 	 *         given point 
+	 * @throws IndexOutOfBoundsException if p is not on this board
 	 */
 	public List<Point> getAdjPoints(Point p) {
-		List<Point> adjPoints = new ArrayList<Point>();
-		Point adjPoint = new Point(p.getX() + 1, p.getY());
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX() - 1, p.getY());
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX(), p.getY() + 1);
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX(), p.getY() - 1);
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX() + 1, p.getY() + 1);
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX() - 1, p.getY() - 1);
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX() - 1, p.getY() + 1);
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
-		adjPoint = new Point(p.getX() + 1, p.getY() - 1);
-		if (containsPoint(adjPoint)) adjPoints.add(adjPoint);
+		if (!containsPoint(p)) {
+			throw new IndexOutOfBoundsException("Location specified is out of "
+					+ "this board's range");
+		}
+		int cell = p.getY() * width + p.getX();
+		List<Point> adjPoints = new ArrayList<Point>(
+				adjacencyStarts[cell + 1] - adjacencyStarts[cell]);
+		for (int i = adjacencyStarts[cell]; i < adjacencyStarts[cell + 1]; i++) {
+			adjPoints.add(new Point(adjacency[i] % width, adjacency[i] / width));
+		}
 		return adjPoints;
 	}
 	
 	@Override
 	public String toString() {
-		String result = "";
-		for (String[] row : board) {
-			for (String letter : row) {
-				result += letter + " ";
+		StringBuilder result = new StringBuilder();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				result.append(get(x, y)).append(' ');
 			}
-			result += '\n';
+			result.append('\n');
 		}
-		return result;
+		return result.toString();
 	}
 	
 	/**
@@ -260,6 +541,47 @@ public class BoggleBoard {
 	 * 		   ("Q" will be replaced with "Qu")
 	 */
 	public static String[][] generateRandomBoard(int width, int height) {
+		return generateRandomBoard(width, height, RANDOM);
+	}
+	
+	/**
+	 * Generates a 2d array filled with upper case letters drawn from the given
+	 * source of randomness, representing a Boggle board of a specified width
+	 * and height. "Q"s will be replaced with "Qu". A source created with a
+	 * fixed seed always generates the same board.
+	 * @param width Width of the 2d array to be generated
+	 * @param height Height of the 2d array to be generated
+	 * @param random Source of the letters of the board
+	 * @return A 2d array of strings filled with random upper case letters
+	 * 		   ("Q" will be replaced with "Qu")
+	 */
+	public static String[][] generateRandomBoard(int width, int height, Random random) {
+		if (height < 1 || width < 1) {
+			throw new IllegalArgumentException("Width and height must be "
+					+ "greater than 0");
+		}
+		String[][] board = new String[height][width];
+		for (int i = 0; i < height; i++) {
+			for (int j = 0; j < width; j++) {
+				board[i][j] = generateRandomBoggleLetter(random);
+			}
+		}
+		return board;
+	}
+	
+	/**
+	 * Generates a 2d array filled with tiles of the given alphabet drawn from
+	 * the given source of randomness, every tile being equally likely,
+	 * representing a Boggle board of a specified width and height. A source
+	 * created with a fixed seed always generates the same board.
+	 * @param width Width of the 2d array to be generated
+	 * @param height Height of the 2d array to be generated
+	 * @param alphabet The tiles to draw from
+	 * @param random Source of the tiles of the board
+	 * @return A 2d array of tiles of the alphabet
+	 */
+	public static String[][] generateRandomBoard(int width, int height, TileAlphabet alphabet,
+			Random random) {
 		if (height < 1 || width < 1) {
 			throw new IllegalArgumentException("Width and height must be "
 					+ "greater than 0");
@@ -267,7 +589,7 @@ public class BoggleBoard {
 		String[][] board = new String[height][width];
 		for (int i = 0; i < height; i++) {
 			for (int j = 0; j < width; j++) {
-				board[i][j] = generateRandomBoggleLetter();
+				board[i][j] = alphabet.randomTile(random);
 			}
 		}
 		return board;
@@ -283,7 +605,17 @@ public class BoggleBoard {
 	 * 		   ("Q" will be replaced with "Qu")
 	 */
 	public static String generateRandomBoggleLetter() {
-		String result = "" + (char) ((int) 'A' + RANDOM.nextInt(26));
+		return generateRandomBoggleLetter(RANDOM);
+	}
+	
+	/**
+	 * Generates a random upper case letter drawn from the given source of
+	 * randomness. "Q" will be replaced with "Qu".
+	 * @param random Source of the letter
+	 * @return A random upper case letter ("Q" will be replaced with "Qu")
+	 */
+	public static String generateRandomBoggleLetter(Random random) {
+		String result = "" + (char) ((int) 'A' + random.nextInt(26));
 		if (result.equals("Q")) {
 			result = "Qu";
 		}
@@ -1,15 +1,72 @@
 package main;
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 /**
  * Class that contains a parallelized and linear method to solve a board. 
  * 
+ * The parallel method first splits the board's cells evenly between the
+ * threads of the pool. Since the work of searching from one cell varies
+ * widely with its letters and neighbors, each search also splits branches
+ * near its start off into new tasks whenever other threads run short of
+ * work, so that idle threads can steal them. The tiled method instead splits
+ * the board into tiles that are each searched by one thread, which suits
+ * boards too large for every thread to share.
+ * 
  * @author Daniel Merken <dcm58@uw.edu>
  */
 public class BoggleBot {
-	private static final ForkJoinPool POOL = new ForkJoinPool();
-	private static final int SEQUENTIAL_CUTOFF = 8;
+	/**
+	 * Pool that runs parallel work when no pool is given, shared by the
+	 * solvers and the board optimizer
+	 */
+	static final ForkJoinPool POOL = new ForkJoinPool();
+	/**
+	 * Number of tasks each thread of a pool is given by the initial split of
+	 * a board's cells, before tasks split their searches further
+	 */
+	private static final int TASKS_PER_THREAD = 4;
+	/**
+	 * Width and height of the tiles searched by solveBoardTiled() when no
+	 * tile size is given
+	 */
+	public static final int DEFAULT_TILE_SIZE = 64;
+	/**
+	 * Maximum word length that places no limit on the words found
+	 */
+	public static final int NO_MAX_LENGTH = Integer.MAX_VALUE;
+	/**
+	 * Largest dictionary, in words, and smallest board, in spaces, for which
+	 * solveBoard() considers searching for each word in turn rather than
+	 * searching from each space
+	 */
+	private static final int WORD_DRIVEN_MAX_WORDS = 1024;
+	private static final int WORD_DRIVEN_MIN_CELLS = 1024;
+	/**
+	 * Typical number of unvisited neighbors a path can continue to, used to
+	 * estimate how many paths of each length a board has
+	 */
+	private static final double PATH_BRANCHING = 6;
+	/**
+	 * Cost of indexing one space by letter, relative to visiting a space in
+	 * a search
+	 */
+	private static final double INDEX_COST = 0.1;
+	/**
+	 * Scratch state for searching boards, kept per thread so that it can be
+	 * reused across solves
+	 */
+	private static final ThreadLocal<BoggleSearch> SEARCHES = 
+			ThreadLocal.withInitial(BoggleSearch::new);
+	/**
+	 * Scratch state for counting and scoring boards, kept per thread so that
+	 * its bitmap of found words can be reused across solves
+	 */
+	private static final ThreadLocal<TallySearch> TALLIES = 
+			ThreadLocal.withInitial(TallySearch::new);
 	
 	/**
 	 * Finds all words in the given dictionary that are contained in the
@@ -18,9 +75,130 @@ public class BoggleBot {
 	 * 
 	 * @param dictionary Contains a dictionary of which words to search for
 	 * @param board The board in which to search for words
+	 * @return Statistics of the solve
 	 */
-	public static void solveBoard(Trie dictionary, BoggleBoard board) {
-		POOL.invoke(new BoggleBotTask(dictionary, board, 0, board.getWidth() * board.getHeight()));
+	public static SolveStatistics solveBoard(Dictionary dictionary, BoggleBoard board) {
+		return solveBoard(dictionary, board, SolveMode.ALL_PATHS);
+	}
+	
+	/**
+	 * Finds all words in the given dictionary that are contained in the
+	 * given boggle board and stores results in the supplied BoggleBoard
+	 * in parallel
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @return Statistics of the solve
+	 */
+	public static SolveStatistics solveBoard(Dictionary dictionary, BoggleBoard board,
+			SolveMode mode) {
+		return solveBoard(dictionary, board, mode, 0, NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Finds all words in the given dictionary whose length lies within the
+	 * given range that are contained in the given boggle board and stores
+	 * results in the supplied BoggleBoard in parallel
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @return Statistics of the solve
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static SolveStatistics solveBoard(Dictionary dictionary, BoggleBoard board,
+			SolveMode mode, int minLength, int maxLength) {
+		return solveBoard(dictionary, board, mode, minLength, maxLength, POOL);
+	}
+	
+	/**
+	 * Finds all words in the given dictionary whose length lies within the
+	 * given range that are contained in the given boggle board and stores
+	 * results in the supplied BoggleBoard in parallel, using the threads of
+	 * the given pool.
+	 * 
+	 * If the dictionary is small and the board large enough that searching
+	 * for each word in turn on the calling thread is estimated to be faster,
+	 * the board is solved as solveBoardWordDriven() does instead.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @param pool The pool whose threads will search the board
+	 * @return Statistics of the solve
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static SolveStatistics solveBoard(Dictionary dictionary, BoggleBoard board,
+			SolveMode mode, int minLength, int maxLength, ForkJoinPool pool) {
+		SolveSettings.checkLengths(minLength, maxLength);
+		if (prefersWordDriven(dictionary, board, maxLength, pool.getParallelism())) {
+			return solveBoardWordDriven(dictionary, board, mode, minLength, maxLength);
+		}
+		SolveStatistics statistics = new SolveStatistics("parallel", board);
+		SolveSettings settings = new SolveSettings(dictionary, mode, minLength, maxLength,
+				statistics);
+		int cellCount = board.getWidth() * board.getHeight();
+		int cutoff = Math.max(1, cellCount / (pool.getParallelism() * TASKS_PER_THREAD));
+		pool.invoke(new BoggleBotTask(board, settings, 0, cellCount, cutoff));
+		return statistics.finish();
+	}
+	
+	/**
+	 * Returns a publisher of the words in the given dictionary whose length
+	 * lies within the given range that are contained in the given boggle
+	 * board. The board is solved in parallel once a subscriber subscribes,
+	 * and each solution is published as soon as the search from its first
+	 * space has finished, without being stored in the board, so solutions
+	 * can be consumed in constant memory and before the solve finishes.
+	 * 
+	 * The publisher accepts one subscriber. Solutions are buffered up to
+	 * Flow.defaultBufferSize(); beyond that the solve waits for the
+	 * subscriber to request more. The subscriber is completed once every
+	 * solution has been published, and cancelling the subscription stops the
+	 * solve. Every solution published is distinct, but none are checked
+	 * against solutions already stored in the board.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to publish
+	 * @param minLength Minimum number of letters in words to publish
+	 * @param maxLength Maximum number of letters in words to publish, or
+	 *        NO_MAX_LENGTH
+	 * @return A publisher of the solutions of the board
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static Flow.Publisher<BogglePath> solveBoardStream(Dictionary dictionary,
+			BoggleBoard board, SolveMode mode, int minLength, int maxLength) {
+		SolutionPublisher publisher = new SolutionPublisher(POOL);
+		SolveSettings settings = new SolveSettings(dictionary, mode, minLength, maxLength,
+				publisher);
+		int cellCount = board.getWidth() * board.getHeight();
+		int cutoff = Math.max(1, cellCount / (POOL.getParallelism() * TASKS_PER_THREAD));
+		publisher.setSolve(new BoggleBotTask(board, settings, 0, cellCount, cutoff));
+		return publisher;
+	}
+	
+	/**
+	 * Finds all words in the given dictionary that are contained in the
+	 * given boggle board and stores results in the supplied BoggleBoard
+	 * in linear
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @return Statistics of the solve
+	 */
+	public static SolveStatistics solveBoardLinear(Dictionary dictionary, BoggleBoard board) {
+		return solveBoardLinear(dictionary, board, SolveMode.ALL_PATHS);
 	}
 	
 	/**
@@ -30,63 +208,692 @@ public class BoggleBot {
 	 * 
 	 * @param dictionary Contains a dictionary of which words to search for
 	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @return Statistics of the solve
+	 */
+	public static SolveStatistics solveBoardLinear(Dictionary dictionary, BoggleBoard board,
+			SolveMode mode) {
+		return solveBoardLinear(dictionary, board, mode, 0, NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Finds all words in the given dictionary whose length lies within the
+	 * given range that are contained in the given boggle board and stores
+	 * results in the supplied BoggleBoard in linear
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @return Statistics of the solve
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static SolveStatistics solveBoardLinear(Dictionary dictionary, BoggleBoard board,
+			SolveMode mode, int minLength, int maxLength) {
+		SolveSettings.checkLengths(minLength, maxLength);
+		SolveStatistics statistics = new SolveStatistics("linear", board);
+		SolveSettings settings = new SolveSettings(dictionary, mode, minLength, maxLength,
+				statistics);
+		BoggleSearch search = SEARCHES.get();
+		for (int cell = 0; cell < board.getWidth() * board.getHeight(); cell++) {
+			search.solveFromCell(board, cell, settings);
+		}
+		return statistics.finish();
+	}
+	
+	/**
+	 * Finds all words in the given dictionary whose length lies within the
+	 * given range that are contained in the given boggle board and stores
+	 * results in the supplied BoggleBoard, on the calling thread.
+	 * 
+	 * Rather than searching from every space of the board, each word of the
+	 * dictionary that can be spelled with the board's letters is searched for
+	 * from the spaces holding its rarest letter. Suited to small dictionaries
+	 * and large boards.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @return Statistics of the solve
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static SolveStatistics solveBoardWordDriven(Dictionary dictionary,
+			BoggleBoard board, SolveMode mode, int minLength, int maxLength) {
+		SolveSettings.checkLengths(minLength, maxLength);
+		SolveStatistics statistics = new SolveStatistics("word-driven", board);
+		new WordSearch(dictionary, board, mode, minLength, maxLength).solve();
+		return statistics.finish();
+	}
+	
+	/**
+	 * Returns the number of distinct words in the given dictionary that are
+	 * contained in the given boggle board. Nothing is stored in the board,
+	 * and no BogglePath is created.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @return The number of distinct words in the board
+	 */
+	public static int countWords(Dictionary dictionary, BoggleBoard board) {
+		return countWords(dictionary, board, 0, NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Returns the number of distinct words in the given dictionary whose
+	 * length lies within the given range that are contained in the given
+	 * boggle board. Nothing is stored in the board, and no BogglePath is
+	 * created.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param minLength Minimum number of letters in words to count
+	 * @param maxLength Maximum number of letters in words to count, or
+	 *        NO_MAX_LENGTH
+	 * @return The number of distinct words in the board
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static int countWords(Dictionary dictionary, BoggleBoard board, int minLength,
+			int maxLength) {
+		SolveSettings.checkLengths(minLength, maxLength);
+		TallySearch tally = TALLIES.get();
+		tally.tally(dictionary, board, ScoringTable.STANDARD, minLength, maxLength);
+		return tally.getWordCount();
+	}
+	
+	/**
+	 * Returns the total standard score of the distinct words in the given
+	 * dictionary that are contained in the given boggle board. Nothing is
+	 * stored in the board, and no BogglePath is created.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @return The total score of the distinct words in the board
+	 */
+	public static int scoreBoard(Dictionary dictionary, BoggleBoard board) {
+		return scoreBoard(dictionary, board, ScoringTable.STANDARD);
+	}
+	
+	/**
+	 * Returns the total score, by the given table, of the distinct words in
+	 * the given dictionary that are contained in the given boggle board.
+	 * Nothing is stored in the board, and no BogglePath is created.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param table Gives the points of each word
+	 * @return The total score of the distinct words in the board
+	 */
+	public static int scoreBoard(Dictionary dictionary, BoggleBoard board, ScoringTable table) {
+		return scoreBoard(dictionary, board, table, 0, NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Returns the total score, by the given table, of the distinct words in
+	 * the given dictionary whose length lies within the given range that are
+	 * contained in the given boggle board. Nothing is stored in the board,
+	 * and no BogglePath is created.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param table Gives the points of each word
+	 * @param minLength Minimum number of letters in words to score
+	 * @param maxLength Maximum number of letters in words to score, or
+	 *        NO_MAX_LENGTH
+	 * @return The total score of the distinct words in the board
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static int scoreBoard(Dictionary dictionary, BoggleBoard board, ScoringTable table,
+			int minLength, int maxLength) {
+		SolveSettings.checkLengths(minLength, maxLength);
+		TallySearch tally = TALLIES.get();
+		tally.tally(dictionary, board, table, minLength, maxLength);
+		return tally.getScore();
+	}
+	
+	/**
+	 * Returns the given number of highest-scoring distinct words in the given
+	 * dictionary that are contained in the given boggle board, one path per
+	 * word. Nothing is stored in the board. Branches of the search that
+	 * cannot score more than the worst word kept so far are skipped, so this
+	 * is far cheaper than solving the whole board and sorting it.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param count Greatest number of words to return
+	 * @return The best words, in the order of BogglePathScoreComparator. Of
+	 *         words tied with the last word returned, those found first are
+	 *         returned
+	 * @throws IllegalArgumentException if count is less than 1
+	 */
+	public static List<BogglePath> solveBoardTopK(Dictionary dictionary, BoggleBoard board,
+			int count) {
+		return solveBoardTopK(dictionary, board, count, 0, NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Returns the given number of highest-scoring distinct words in the given
+	 * dictionary whose length lies within the given range that are contained
+	 * in the given boggle board, one path per word. Nothing is stored in the
+	 * board.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param count Greatest number of words to return
+	 * @param minLength Minimum number of letters in words to return
+	 * @param maxLength Maximum number of letters in words to return, or
+	 *        NO_MAX_LENGTH
+	 * @return The best words, in the order of BogglePathScoreComparator
+	 * @throws IllegalArgumentException if count is less than 1, or minLength
+	 *         is negative or greater than maxLength
+	 */
+	public static List<BogglePath> solveBoardTopK(Dictionary dictionary, BoggleBoard board,
+			int count, int minLength, int maxLength) {
+		if (count < 1) {
+			throw new IllegalArgumentException("At least one word must be requested");
+		}
+		SolveSettings.checkLengths(minLength, maxLength);
+		return new BestWordSearch(dictionary, board, ScoringTable.STANDARD, minLength, maxLength,
+				count).solve();
+	}
+	
+	/**
+	 * Returns a path spelling the longest word in the given dictionary that is
+	 * contained in the given boggle board. The search stops as soon as no
+	 * longer word can remain. Nothing is stored in the board.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @return A path spelling the longest word, or null if the board contains
+	 *         no word
+	 */
+	public static BogglePath longestWord(Dictionary dictionary, BoggleBoard board) {
+		int[] lengths = new int[dictionary.getMaxWordLength() + 1];
+		for (int length = 0; length < lengths.length; length++) {
+			lengths[length] = length;
+		}
+		List<BogglePath> longest = new BestWordSearch(dictionary, board, new ScoringTable(lengths),
+				1, NO_MAX_LENGTH, 1).solve();
+		return longest.isEmpty() ? null : longest.get(0);
+	}
+	
+	/**
+	 * Returns true iff the given boggle board contains a word in the given
+	 * dictionary with the given number of letters. The search stops at the
+	 * first such word, and skips every path that cannot reach the length.
+	 * Nothing is stored in the board.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param length Number of letters in the word
+	 * @return True if the board contains a word of the given length, else
+	 *         false
+	 * @throws IllegalArgumentException if length is negative
+	 */
+	public static boolean hasAnyWordOfLength(Dictionary dictionary, BoggleBoard board,
+			int length) {
+		SolveSettings.checkLengths(length, length);
+		return !new BestWordSearch(dictionary, board, new ScoringTable(1), length, length, 1)
+				.solve().isEmpty();
+	}
+	
+	/**
+	 * Finds all words in the given dictionary that are contained in the
+	 * given boggle board and stores results in the supplied BoggleBoard
+	 * in parallel, one tile of the board at a time. Suited to boards far
+	 * larger than the default tile size.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @return Statistics of the solve
+	 */
+	public static SolveStatistics solveBoardTiled(Dictionary dictionary, BoggleBoard board) {
+		return solveBoardTiled(dictionary, board, SolveMode.ALL_PATHS, 0, NO_MAX_LENGTH,
+				DEFAULT_TILE_SIZE);
+	}
+	
+	/**
+	 * Finds all words in the given dictionary whose length lies within the
+	 * given range that are contained in the given boggle board and stores
+	 * results in the supplied BoggleBoard in parallel, one tile of the board
+	 * at a time.
+	 * 
+	 * The board is cut into square tiles of the given size. No word can reach
+	 * further from its first space than its length, so every word starting in
+	 * a tile lies within the tile and a surrounding halo as wide as the
+	 * longest word that can be found. Each tile is copied together with its
+	 * halo into a small board of its own, and searched from the spaces of the
+	 * tile alone, so that every path is found by exactly one tile and each
+	 * search only touches memory local to its tile.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @param tileSize Width and height of each tile, not including its halo
+	 * @return Statistics of the solve
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength, or if tileSize is less than 1
+	 */
+	public static SolveStatistics solveBoardTiled(Dictionary dictionary, BoggleBoard board,
+			SolveMode mode, int minLength, int maxLength, int tileSize) {
+		if (tileSize < 1) {
+			throw new IllegalArgumentException("Tile size must be greater than 0");
+		}
+		SolveSettings.checkLengths(minLength, maxLength);
+		SolveStatistics statistics = new SolveStatistics("tiled", board);
+		SolveSettings settings = new SolveSettings(dictionary, mode, minLength, maxLength,
+				statistics);
+		// A path of n letters covers at most n spaces
+		int halo = Math.max(0, Math.min(maxLength, dictionary.getMaxWordLength()) - 1);
+		int columns = (board.getWidth() + tileSize - 1) / tileSize;
+		int rows = (board.getHeight() + tileSize - 1) / tileSize;
+		POOL.invoke(new TileTask(board, settings, tileSize, halo, 0, columns * rows));
+		return statistics.finish();
+	}
+	
+	/**
+	 * Finds all words in the given dictionary that are contained in each of
+	 * the given boggle boards and stores results in the supplied
+	 * BoggleBoards, walking the dictionary once for the whole batch
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param boards The boards in which to search for words
 	 */
-	public static void solveBoardLinear(Trie dictionary, BoggleBoard board) {
-		for (int i = 0; i < board.getWidth(); i++) {
-			for (int j = 0; j < board.getHeight(); j++) {
-				solveBoardFromPoint(dictionary, board, new Point(i, j));
+	public static void solveBoardsLockstep(Dictionary dictionary, List<BoggleBoard> boards) {
+		solveBoardsLockstep(dictionary, boards, SolveMode.ALL_PATHS, 0, NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Finds all words in the given dictionary whose length lies within the
+	 * given range that are contained in each of the given boggle boards and
+	 * stores results in the supplied BoggleBoards, on the calling thread.
+	 * 
+	 * Rather than solving the boards one at a time, the dictionary is walked
+	 * once for the whole batch, following every board's paths through each
+	 * dictionary node together, so that each node is loaded once per batch
+	 * rather than once per board. Suited to batches of many small boards.
+	 * Boards with more than 64 spaces are solved one at a time instead.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param boards The boards in which to search for words
+	 * @param mode Which of the paths found to store in the boards
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	public static void solveBoardsLockstep(Dictionary dictionary, List<BoggleBoard> boards,
+			SolveMode mode, int minLength, int maxLength) {
+		SolveSettings.checkLengths(minLength, maxLength);
+		List<BoggleBoard> small = new ArrayList<BoggleBoard>(boards.size());
+		for (BoggleBoard board : boards) {
+			if (board.getWidth() * board.getHeight() <= LockstepSearch.MAX_CELLS) {
+				small.add(board);
+			} else {
+				solveBoardLinear(dictionary, board, mode, minLength, maxLength);
 			}
 		}
+		new LockstepSearch(dictionary, small, mode, minLength, maxLength).solve();
 	}
 	
-	public static void solveBoardFromPoint(Trie dictionary, BoggleBoard board, Point start) {
-		if (dictionary.containsPrefix(board.get(start))) {
-			Stack<BogglePath> dfs = new Stack<BogglePath>();
-			dfs.push(new BogglePath(board, start));
-			while (!dfs.isEmpty()) {
-				BogglePath currPath = dfs.pop();
-				if (dictionary.containsWord(currPath.getWord())) {
-					board.addSolution(currPath);
-				}
-				for (Point p : board.getAdjPoints(currPath.getLastPoint())) {
-					if (!currPath.containsPoint(p) && 
-							dictionary.containsPrefix(
-									currPath.getWord() + board.get(p))) {
-						BogglePath nextPath = new BogglePath(currPath);
-						nextPath.addPoint(p);
-						dfs.push(nextPath);
+	/**
+	 * Finds all words in the given dictionary that start at the given point
+	 * of the given boggle board and stores results in the supplied
+	 * BoggleBoard. Reuses the calling thread's search buffers.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param start The point every word found must start at
+	 */
+	public static void solveBoardFromPoint(Dictionary dictionary, BoggleBoard board, Point start) {
+		if (!board.containsPoint(start)) {
+			throw new IndexOutOfBoundsException("Location specified is out of "
+					+ "this board's range");
+		}
+		SEARCHES.get().solveFromCell(board, start.getY() * board.getWidth() + start.getX(),
+				new SolveSettings(dictionary, SolveMode.ALL_PATHS, 0, NO_MAX_LENGTH));
+	}
+	
+	/**
+	 * Replaces the tile at the given point of the given boggle board and
+	 * updates the solutions stored in the board to match, on the calling
+	 * thread. The board must already hold every solution found by solving it
+	 * with the given dictionary and settings, and will afterwards hold every
+	 * solution of the changed board, as if it had been solved from scratch.
+	 * 
+	 * Every stored solution passing through the point is removed, and the
+	 * board is searched only for paths that pass through the point. Since no
+	 * path is longer than the longest word, only spaces that close to the
+	 * point are searched from, and a path is abandoned once it can no longer
+	 * reach the point, so an edit costs in proportion to the neighborhood of
+	 * the point rather than to the board. In SolveMode.UNIQUE_WORDS, words
+	 * whose only stored path passed through the point are also searched for
+	 * anywhere else on the board.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board whose tile will be replaced
+	 * @param point The point of the tile to be replaced
+	 * @param tile The new tile, one of the board's alphabet
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        NO_MAX_LENGTH
+	 * @throws IndexOutOfBoundsException if point is not on the board
+	 * @throws IllegalArgumentException if tile is not a valid tile, or if
+	 *         minLength is negative or greater than maxLength
+	 */
+	public static void replaceTile(Dictionary dictionary, BoggleBoard board, Point point,
+			String tile, SolveMode mode, int minLength, int maxLength) {
+		if (!board.containsPoint(point)) {
+			throw new IndexOutOfBoundsException("Location specified is out of "
+					+ "this board's range");
+		}
+		byte code = board.tileCode(tile);
+		List<BogglePath> found = new ArrayList<BogglePath>();
+		SolveSettings settings = new SolveSettings(dictionary, mode, minLength, maxLength,
+				new SolutionSink() {
+					@Override
+					public void accept(List<BogglePath> batch) {
+						found.addAll(batch);
 					}
-				}
+					
+					@Override
+					public boolean isCancelled() {
+						return false;
+					}
+				});
+		int cell = point.getY() * board.getWidth() + point.getX();
+		List<BogglePath> removed = board.setTile(cell, code);
+		
+		int limit = Math.min(maxLength, dictionary.getMaxWordLength());
+		int radius = limit - 1;
+		BoggleSearch search = SEARCHES.get();
+		for (int y = Math.max(0, point.getY() - radius);
+				y <= Math.min(board.getHeight() - 1, point.getY() + radius); y++) {
+			for (int x = Math.max(0, point.getX() - radius);
+					x <= Math.min(board.getWidth() - 1, point.getX() + radius); x++) {
+				search.solveThroughCell(board, y * board.getWidth() + x, cell, limit, settings);
+			}
+		}
+		if (mode == SolveMode.ALL_PATHS) {
+			board.addSolutions(found);
+			return;
+		}
+		
+		// Only keep one path for each word, then look elsewhere for the words
+		// that lost their only path
+		List<BogglePath> added = new ArrayList<BogglePath>();
+		for (BogglePath path : found) {
+			if (!board.solutions.containsWord(path.getWord())) {
+				added.add(path);
+			}
+		}
+		board.addSolutions(added);
+		Trie lost = new Trie();
+		boolean anyLost = false;
+		for (BogglePath path : removed) {
+			if (!board.solutions.containsWord(path.getWord())) {
+				lost.insert(path.getWord());
+				anyLost = true;
+			}
+		}
+		if (anyLost) {
+			// The trie of lost words is searched once, so none of its tile
+			// transitions are worth remembering
+			lost.trimToSize();
+			new WordSearch(lost, board, mode, minLength, maxLength,
+					board.alphabet.getUnmemoizedTransitions()).solve();
+		}
+	}
+	
+	/**
+	 * Estimates whether searching for each word of the given dictionary in
+	 * turn will solve the given board faster than searching from each of its
+	 * spaces with the given number of threads. Both costs are counted in
+	 * spaces visited by a search, each of which checks every neighbor.
+	 * 
+	 * Searching from each space visits every space once, and every space at
+	 * the end of a path that spells a prefix of a word. A random path of n
+	 * spaces spells a given prefix with the product of the frequencies of its
+	 * letters on the board, and a board has about PATH_BRANCHING^(n-1) paths
+	 * of n spaces from each space. Searching for each word visits every space
+	 * holding the word's rarest letter. Both sums are taken over the
+	 * dictionary's prefixes and words that the board's letters can spell, so
+	 * the estimate reflects the dictionary's size and the lengths of its
+	 * words. Only small dictionaries and large boards are considered, so the
+	 * walk of the dictionary is cheap next to the solve.
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param maxLength Maximum number of letters in words to be found
+	 * @param parallelism Number of threads searching from the spaces
+	 * @return True if searching for each word is estimated to be cheaper
+	 */
+	static boolean prefersWordDriven(Dictionary dictionary, BoggleBoard board, int maxLength,
+			int parallelism) {
+		int cellCount = board.tiles.length;
+		if (cellCount < WORD_DRIVEN_MIN_CELLS ||
+				dictionary.getWordCount(dictionary.getRoot()) > WORD_DRIVEN_MAX_WORDS) {
+			return false;
+		}
+		TileAlphabet alphabet = board.alphabet;
+		TileTransitions transitions = alphabet.getTransitions(dictionary);
+		int[] tileCounts = new int[alphabet.size()];
+		for (byte tile : board.tiles) {
+			tileCounts[tile]++;
+		}
+		double boardDrivenCost = cellCount;
+		double wordDrivenCost = cellCount * INDEX_COST;
+		// Walk the prefixes the board's letters can spell, keeping the chance
+		// that a path from a space spells each one, times the number of such
+		// paths, and the fewest spaces holding any of its letters
+		int[] nodes = new int[16];
+		int[] nextTiles = new int[16];
+		int[] lengths = new int[16];
+		double[] paths = new double[16];
+		int[] rarest = new int[16];
+		nodes[0] = dictionary.getRoot();
+		paths[0] = 1 / PATH_BRANCHING;
+		rarest[0] = cellCount;
+		int depth = 0;
+		while (depth >= 0) {
+			int tile = nextTiles[depth];
+			if (tile == alphabet.size()) {
+				depth--;
+				continue;
+			}
+			nextTiles[depth] = tile + 1;
+			int length = lengths[depth] + alphabet.lengths[tile];
+			if (tileCounts[tile] == 0 || length > maxLength) {
+				continue;
+			}
+			int node = transitions.step(dictionary, nodes[depth], (byte) tile);
+			if (node == Dictionary.NO_NODE) {
+				continue;
+			}
+			if (depth + 1 == nodes.length) {
+				nodes = Arrays.copyOf(nodes, nodes.length * 2);
+				nextTiles = Arrays.copyOf(nextTiles, nodes.length);
+				lengths = Arrays.copyOf(lengths, nodes.length);
+				paths = Arrays.copyOf(paths, nodes.length);
+				rarest = Arrays.copyOf(rarest, nodes.length);
+			}
+			nodes[depth + 1] = node;
+			nextTiles[depth + 1] = 0;
+			lengths[depth + 1] = length;
+			paths[depth + 1] = paths[depth] * PATH_BRANCHING * tileCounts[tile] / cellCount;
+			rarest[depth + 1] = Math.min(rarest[depth], tileCounts[tile]);
+			depth++;
+			// The search from each space visits the spaces ending prefixes of
+			// two or more tiles; the first tile is counted by its start
+			if (depth > 1) {
+				boardDrivenCost += cellCount * paths[depth];
+			}
+			if (dictionary.isWord(node)) {
+				wordDrivenCost += rarest[depth];
 			}
 		}
+		return wordDrivenCost * parallelism < boardDrivenCost;
 	}
 	
+	/**
+	 * Searches the given path of the given board from a task of a
+	 * ForkJoinPool. Branches of the search that are split off are forked as
+	 * new tasks, which are joined once the search has finished. Does nothing
+	 * if the solve's sink no longer wants solutions.
+	 * 
+	 * @param board The board in which to search for words
+	 * @param settings The settings of the solve this search is part of
+	 * @param path Ids of the cells every word must start with
+	 */
+	private static void solveFromPath(BoggleBoard board, SolveSettings settings, int[] path) {
+		if (settings.sink != null && settings.sink.isCancelled()) {
+			return;
+		}
+		List<SubtreeTask> forked = new ArrayList<SubtreeTask>();
+		SEARCHES.get().solveFromPath(board, path, settings, branch -> {
+			SubtreeTask task = new SubtreeTask(board, settings, branch);
+			task.fork();
+			forked.add(task);
+		});
+		for (int i = forked.size() - 1; i >= 0; i--) {
+			forked.get(i).join();
+		}
+	}
+	
+	/**
+	 * Searches every cell in a range of cell ids, splitting the range in half
+	 * until it holds at most cutoff cells
+	 */
 	private static class BoggleBotTask extends RecursiveAction {
 		
-		private Trie dictionary;
+		private static final long serialVersionUID = 1L;
+		
 		private BoggleBoard board;
+		private SolveSettings settings;
 		private int lo;
 		private int hi;
+		private int cutoff;
 		
-		public BoggleBotTask(Trie dictionary, BoggleBoard board, int lo, int hi) {
-			this.dictionary = dictionary;
+		public BoggleBotTask(BoggleBoard board, SolveSettings settings, int lo, int hi,
+				int cutoff) {
 			this.board = board;
+			this.settings = settings;
 			this.lo = lo;
 			this.hi = hi;
+			this.cutoff = cutoff;
 		}
 		
 		@Override
 		protected void compute() {
-			if (hi - lo <= SEQUENTIAL_CUTOFF) {
-				for (int i = lo; i < hi; i++) {
-					solveBoardFromPoint(dictionary, board, 
-							new Point(i / board.getWidth(), i % board.getWidth()));
+			if (hi - lo <= cutoff) {
+				for (int cell = lo; cell < hi; cell++) {
+					solveFromPath(board, settings, new int[] {cell});
 				}
 			} else {
-				BoggleBotTask left = new BoggleBotTask(dictionary, board, lo, (hi + lo) / 2);
-				BoggleBotTask right = new BoggleBotTask(dictionary, board, (hi + lo) / 2, hi); 
-				left.fork();
-				right.compute();
+				BoggleBotTask left = new BoggleBotTask(board, settings, lo, (hi + lo) / 2, cutoff);
+				BoggleBotTask right = new BoggleBotTask(board, settings, (hi + lo) / 2, hi, cutoff); 
+				invokeAll(left, right);
+			}
+		}
+	}
+	
+	/**
+	 * Searches the branch of a board that starts with a given path, split off
+	 * from the search of a shorter path
+	 */
+	private static class SubtreeTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private BoggleBoard board;
+		private SolveSettings settings;
+		private int[] path;
+		
+		public SubtreeTask(BoggleBoard board, SolveSettings settings, int[] path) {
+			this.board = board;
+			this.settings = settings;
+			this.path = path;
+		}
+		
+		@Override
+		protected void compute() {
+			solveFromPath(board, settings, path);
+		}
+	}
+	
+	/**
+	 * Searches every tile in a range of tiles of a board, numbered row by
+	 * row, splitting the range in half until it holds one tile
+	 */
+	private static class TileTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private BoggleBoard board;
+		private SolveSettings settings;
+		private int tileSize;
+		private int halo;
+		private int lo;
+		private int hi;
+		
+		public TileTask(BoggleBoard board, SolveSettings settings, int tileSize, int halo,
+				int lo, int hi) {
+			this.board = board;
+			this.settings = settings;
+			this.tileSize = tileSize;
+			this.halo = halo;
+			this.lo = lo;
+			this.hi = hi;
+		}
+		
+		@Override
+		protected void compute() {
+			if (hi - lo <= 1) {
+				for (int tile = lo; tile < hi; tile++) {
+					solveTile(tile);
+				}
+			} else {
+				TileTask left = new TileTask(board, settings, tileSize, halo, lo, (hi + lo) / 2);
+				TileTask right = new TileTask(board, settings, tileSize, halo, (hi + lo) / 2, hi);
+				invokeAll(left, right);
+			}
+		}
+		
+		/**
+		 * Copies the given tile and its halo out of the board, then searches
+		 * from every space of the tile
+		 * 
+		 * @param tile Number of the tile, counting row by row
+		 */
+		private void solveTile(int tile) {
+			int columns = (board.getWidth() + tileSize - 1) / tileSize;
+			int tileX = tile % columns * tileSize;
+			int tileY = tile / columns * tileSize;
+			int tileWidth = Math.min(tileSize, board.getWidth() - tileX);
+			int tileHeight = Math.min(tileSize, board.getHeight() - tileY);
+			int left = Math.max(0, tileX - halo);
+			int top = Math.max(0, tileY - halo);
+			int right = Math.min(board.getWidth(), tileX + tileWidth + halo);
+			int bottom = Math.min(board.getHeight(), tileY + tileHeight + halo);
+			BoggleBoard local = new BoggleBoard(board, left, top, right - left, bottom - top);
+			BoggleSearch search = SEARCHES.get();
+			for (int y = tileY - top; y < tileY - top + tileHeight; y++) {
+				for (int x = tileX - left; x < tileX - left + tileWidth; x++) {
+					search.solveFromCell(local, y * (right - left) + x, settings);
+				}
 			}
 		}
 	}
@@ -80,6 +80,7 @@ public class BoggleBotUI extends JApplet implements ActionListener, ListSelectio
 	 * Initializes this applet with its default settings
 	 */
 	public void init() {		
+		DictionaryParser.loadSharedDictionary();
 		setSize(1000, 500);
 		
 		getContentPane().setLayout(new GridBagLayout());
@@ -255,9 +256,10 @@ public class BoggleBotUI extends JApplet implements ActionListener, ListSelectio
 			}
 			i++;
 		}
-		Trie dictionary = DictionaryParser.parseDictionary((int) minLengthBox.getSelectedItem());
 		BoggleBoard board = new BoggleBoard(letters);
-		BoggleBot.solveBoard(dictionary, board);
+		BoggleBot.solveBoard(DictionaryParser.getSharedDictionary(), board, 
+				SolveMode.ALL_PATHS, (int) minLengthBox.getSelectedItem(), 
+				BoggleBot.NO_MAX_LENGTH);
 		System.out.println(board);
 		System.out.println(board.getSolutionWords());
 		solutionsModel.set(board.getSolutions(), new BogglePathScoreComparator());
@@ -1,22 +1,47 @@
 package main;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Represents a path of through the spaces of a BoggleBoard. Tracks what spaces
- * the path visits, the corresponding word formed by said spaces on the 
- * BoggleBoard, and the score value of the word. Each space may only be 
+ * the path visits, the corresponding word formed by said spaces on the
+ * BoggleBoard, and the score value of the word. Each space may only be
  * traversed once by a given BogglePath. A given point in the list must be
  * adjacent to the next and previous point in the list.
- * 
+ *
+ * A path is stored packed: the cell id of its first space, followed by one
+ * byte per step giving the direction of the next space. The steps may be a
+ * range of an array shared with other paths, such as the arena in which a
+ * board stores its solutions, which is never modified in place, so a path
+ * can be a view of its board's storage. Points are only created when asked
+ * for. The hash code is computed once, so hashing a path is O(1), and paths
+ * with different hash codes are unequal without comparing their steps.
+ *
  * @author Daniel Merken <dcm58@uw.edu>
  */
-public class BogglePath {	
+public class BogglePath {
 	/**
-	 * Contains all points of this path
+	 * Cell id of the first space of this path, where the cell id of the
+	 * space at (x, y) is y * width + x
 	 */
-	private List<Point> points;
+	private int start;
+	/**
+	 * Directions of the steps of this path, in order, are steps[offset] up
+	 * to, but not including, steps[offset + length - 1]. A step to the space
+	 * dx columns and dy rows away is stored as (dy + 1) * 3 + dx + 1
+	 */
+	private byte[] steps;
+	private int offset;
+	/**
+	 * Number of spaces in this path
+	 */
+	private int length;
+	/**
+	 * Hash code of this path
+	 */
+	private int hash;
 	/**
 	 * Word formed by this path
 	 */
@@ -29,37 +54,91 @@ public class BogglePath {
 	 * Boggle Board that this path is contained in
 	 */
 	private BoggleBoard board;
-	
+
 	/**
-	 * Creates a new empty path in the given board with the given starting 
+	 * Creates a new empty path in the given board with the given starting
 	 * point
-	 * 
+	 *
 	 * @param board The board this path will be contained in
 	 * @param start The starting point of this path
 	 */
 	public BogglePath(BoggleBoard board, Point start) {
-		points = new ArrayList<Point>();
-		points.add(start);
 		word = board.get(start).toLowerCase();
+		this.start = start.getY() * board.getWidth() + start.getX();
+		steps = new byte[0];
+		length = 1;
 		score = 0;
 		this.board = board;
+		hash = hashOf(board, this.start, steps, 0, 0);
+	}
+
+	/**
+	 * Creates a path in the given board that follows the given cells, where
+	 * the id of the cell at (x, y) is y * width + x. The cells are assumed to
+	 * form a valid path spelling the given word, and are not checked.
+	 *
+	 * @param board The board this path will be contained in
+	 * @param cells Ids of the cells of this path, in order
+	 * @param length Number of cells in this path
+	 * @param word Word formed by this path, in lower case
+	 */
+	BogglePath(BoggleBoard board, int[] cells, int length, String word) {
+		int width = board.getWidth();
+		start = cells[0];
+		steps = new byte[length - 1];
+		for (int i = 1; i < length; i++) {
+			steps[i - 1] = stepOf(cells[i - 1], cells[i], width);
+		}
+		this.length = length;
+		this.word = word;
+		score = ScoringTable.STANDARD.getPoints(word.length());
+		this.board = board;
+		hash = hashOf(board, start, steps, 0, length - 1);
+	}
+
+	/**
+	 * Creates a view of a path whose steps are a range of the given array,
+	 * which must never be modified afterwards
+	 *
+	 * @param board The board this path is contained in
+	 * @param start Cell id of the first space of this path
+	 * @param steps Holds the steps of this path
+	 * @param offset Index in steps of the first step of this path
+	 * @param length Number of spaces in this path
+	 * @param word Word formed by this path, in lower case
+	 * @param hash Hash code of this path, as given by hashOf()
+	 */
+	BogglePath(BoggleBoard board, int start, byte[] steps, int offset, int length, String word,
+			int hash) {
+		this.start = start;
+		this.steps = steps;
+		this.offset = offset;
+		this.length = length;
+		this.word = word;
+		score = ScoringTable.STANDARD.getPoints(word.length());
+		this.board = board;
+		this.hash = hash;
 	}
-	
+
 	/**
 	 * Constructs a copy of the given BogglePath
-	 * 
+	 *
 	 * @param path The path to construct a copy of
 	 */
 	public BogglePath(BogglePath path) {
-		points = new ArrayList<Point>(path.points);
+		start = path.start;
+		steps = path.steps;
+		offset = path.offset;
+		length = path.length;
+		hash = path.hash;
 		word = path.word;
 		score = path.score;
 		board = path.board;
 	}
-	
+
 	/**
 	 * Adds the given point to the end of this path
-	 * 
+	 *
 	 * @param p Point to be added to the end of this path
 	 */
 	public void addPoint(Point p) {
@@ -71,89 +150,210 @@ public class BogglePath {
 			throw new IllegalArgumentException("Specified point to be added is"
 					+ " not adjacent to previous point");
 		}
-		points.add(p);
+		int width = board.getWidth();
+		// The steps may be shared, so they are copied rather than extended
+		byte[] extended = Arrays.copyOfRange(steps, offset, offset + length);
+		extended[length - 1] = stepOf(getCell(length - 1), p.getY() * width + p.getX(), width);
+		steps = extended;
+		offset = 0;
+		length++;
+		hash = hashOf(board, start, steps, 0, length - 1);
 		word += board.get(p).toLowerCase();
-		if (word.length() >= 8) {
-			score = 11;
-		} else if (word.length() == 7) {
-			score = 5;
-		} else if (word.length() == 6) {
-			score = 3;
-		} else if (word.length() == 5) {
-			score = 2;
-		} else if (word.length() >= 3) {
-			score = 1;
-		}
+		score = ScoringTable.STANDARD.getPoints(word.length());
 	}
-	
+
 	/**
 	 * Returns the list of points this path contains
-	 * 
+	 *
 	 * @return A list of points this path contains in the same order as the
 	 * 		   path
 	 */
 	public List<Point> getPoints() {
-		return new ArrayList<Point>(points);
+		int width = board.getWidth();
+		List<Point> points = new ArrayList<Point>(length);
+		int cell = start;
+		points.add(new Point(cell % width, cell / width));
+		for (int i = 0; i < length - 1; i++) {
+			cell = nextCell(cell, steps[offset + i], width);
+			points.add(new Point(cell % width, cell / width));
+		}
+		return points;
 	}
-	
+
 	/**
 	 * Returns the word that this path corresponds to in the Boggle board
-	 * 
+	 *
 	 * @return The word that this path corresponds to in the Boggle board
 	 */
 	public String getWord() {
 		return word;
 	}
-	
+
 	/**
 	 * Returns the score that this path's word corresponds to
-	 * 
+	 *
 	 * @return returns the score that this path's word corresponds to
 	 */
 	public int getScore() {
 		return score;
 	}
-	
+
 	/**
 	 * Returns the Boggle board this path is contained in
-	 * 
+	 *
 	 * @return the Boggle board this path is contained in
 	 */
 	public BoggleBoard getBoard() {
 		return board;
 	}
-	
+
 	/**
 	 * Returns the last point in this path
-	 * 
+	 *
 	 * @return the last word in this path
 	 */
 	public Point getLastPoint() {
-		return points.get(points.size() - 1);
+		int cell = getCell(length - 1);
+		return new Point(cell % board.getWidth(), cell / board.getWidth());
 	}
-	
+
 	/**
 	 * Returns true iff the a given point is contained in this path
-	 * 
+	 *
 	 * @param The point to be checked whether it is contained in this path
 	 * @return True if the given point is contained in this path, else returns
 	 * false
 	 */
 	public boolean containsPoint(Point p) {
-		return points.contains(p);
+		int width = board.getWidth();
+		if (p.getX() < 0 || p.getX() >= width) {
+			return false;
+		}
+		int target = p.getY() * width + p.getX();
+		int cell = start;
+		for (int i = 0; cell != target && i < length - 1; i++) {
+			cell = nextCell(cell, steps[offset + i], width);
+		}
+		return cell == target;
+	}
+
+	/**
+	 * Returns the cell id of the first space of this path
+	 *
+	 * @return The cell id of the first space
+	 */
+	int getStart() {
+		return start;
 	}
-	
+
+	/**
+	 * Returns the number of spaces in this path
+	 *
+	 * @return The number of spaces in this path
+	 */
+	int getLength() {
+		return length;
+	}
+
+	/**
+	 * Copies the steps of this path into the given array
+	 *
+	 * @param destination Array to copy the steps into
+	 * @param position Index in destination of the first step
+	 */
+	void copySteps(byte[] destination, int position) {
+		System.arraycopy(steps, offset, destination, position, length - 1);
+	}
+
+	/**
+	 * Returns true iff this path has the given first space and steps
+	 *
+	 * @param start Cell id of the first space
+	 * @param steps Holds the steps
+	 * @param offset Index in steps of the first step
+	 * @param length Number of spaces
+	 * @return True if the path given follows the same spaces as this path
+	 */
+	boolean hasSteps(int start, byte[] steps, int offset, int length) {
+		return this.start == start && this.length == length && Arrays.equals(this.steps,
+				this.offset, this.offset + length - 1, steps, offset, offset + length - 1);
+	}
+
+	/**
+	 * Returns the cell id of the space at the given position of this path
+	 *
+	 * @param index Position in the path, from 0
+	 * @return The cell id of the space at index
+	 */
+	int getCell(int index) {
+		int width = board.getWidth();
+		int cell = start;
+		for (int i = 0; i < index; i++) {
+			cell = nextCell(cell, steps[offset + i], width);
+		}
+		return cell;
+	}
+
+	/**
+	 * Returns the step from one cell to an adjacent cell
+	 *
+	 * @param from Cell id of the space stepped from
+	 * @param to Cell id of the adjacent space stepped to
+	 * @param width Width of the board
+	 * @return The direction of the step
+	 */
+	static byte stepOf(int from, int to, int width) {
+		return (byte) ((to / width - from / width + 1) * 3 + to % width - from % width + 1);
+	}
+
+	/**
+	 * Returns the cell reached by taking the given step from the given cell
+	 *
+	 * @param cell Cell id of the space stepped from
+	 * @param step Direction of the step
+	 * @param width Width of the board
+	 * @return The cell id of the space stepped to
+	 */
+	static int nextCell(int cell, byte step, int width) {
+		return cell + (step / 3 - 1) * width + step % 3 - 1;
+	}
+
+	/**
+	 * Returns the hash code of the path in the given board with the given
+	 * first space and steps
+	 *
+	 * @param board The board of the path
+	 * @param start Cell id of the first space
+	 * @param steps Holds the steps
+	 * @param offset Index in steps of the first step
+	 * @param stepCount Number of steps
+	 * @return The hash code of the path
+	 */
+	static int hashOf(BoggleBoard board, int start, byte[] steps, int offset, int stepCount) {
+		int hash = 31 * System.identityHashCode(board) + start;
+		for (int i = offset; i < offset + stepCount; i++) {
+			hash = 31 * hash + steps[i];
+		}
+		return hash;
+	}
+
 	@Override
 	public String toString() {
 		return word + " (" + score + ")";
 	}
-	
+
 	@Override
 	public boolean equals(Object o)  {
 		if (!(o instanceof BogglePath)) {
 			return false;
 		}
 		BogglePath otherPath = (BogglePath) o;
-		return board == otherPath.board && points.equals(otherPath.points);
+		return board == otherPath.board && hash == otherPath.hash &&
+				otherPath.hasSteps(start, steps, offset, length);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
 	}
 }
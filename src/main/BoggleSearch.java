@@ -0,0 +1,451 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Reusable scratch state for a depth first search of a BoggleBoard. The
+ * search backtracks in place: the current path is kept as a stack of cell
+ * ids along with the dictionary node and next neighbor to try at each depth,
+ * visited cells are tracked in a bitset, and the letters of the path are kept
+ * in a character buffer. A BogglePath is only created when a word is found, so
+ * a search allocates nothing else once its buffers have grown to fit. The
+ * solutions found from each starting cell are handed to the board, or to the
+ * solve's sink if it has one, as one batch.
+ *
+ * Branches are skipped when every word they lead to needs a letter the board
+ * does not have, or needs a letter twice that the board has only once.
+ *
+ * If SolveStatistics.ENABLED, each search also counts the paths it expands,
+ * the extensions it rejects and its dead ends, and adds them to the solve's
+ * statistics once it finishes.
+ *
+ * A BoggleSearch may be reused for any number of searches, but only by one
+ * thread at a time.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class BoggleSearch {
+	private static final int INITIAL_DEPTH = 16;
+	/**
+	 * Branches are only split off a search within this many cells of the
+	 * start of the path, where they are large enough to be worth a task
+	 */
+	private static final int MAX_SPLIT_DEPTH = 3;
+	/**
+	 * Branches are only split off a search while its thread has fewer than
+	 * this many more queued tasks than other threads could steal
+	 */
+	private static final int MAX_SURPLUS_TASKS = 2;
+	/**
+	 * True iff searches count their work for the solve's statistics
+	 */
+	private static final boolean COUNTING = SolveStatistics.ENABLED;
+
+	/**
+	 * Cell ids of the current path, where a cell's id is y * width + x
+	 */
+	private int[] cells;
+	/**
+	 * Dictionary node reached by the path up to each depth
+	 */
+	private int[] nodes;
+	/**
+	 * Position in the board's adjacency table of the next neighbor to try
+	 * from the cell at each depth
+	 */
+	private int[] neighbors;
+	/**
+	 * Number of letters in the path up to and including each depth
+	 */
+	private int[] wordLengths;
+	/**
+	 * Letters of the current path
+	 */
+	private char[] letters;
+	/**
+	 * One bit per cell of the board, set iff the cell is on the current path
+	 */
+	private long[] visited;
+	/**
+	 * Solutions found by the current search that have not yet been handed to
+	 * the board, or null if there are none
+	 */
+	private List<BogglePath> found;
+	/**
+	 * Work done by the current search, counted only if COUNTING: paths
+	 * searched, extensions rejected for each reason, and paths that could
+	 * not be extended along with their total number of cells
+	 */
+	private long expanded;
+	private long prefixRejected;
+	private long letterRejected;
+	private long exhaustedRejected;
+	private long deadEnds;
+	private long deadEndDepths;
+
+	/**
+	 * Creates a new search with empty buffers
+	 */
+	BoggleSearch() {
+		cells = new int[INITIAL_DEPTH];
+		nodes = new int[INITIAL_DEPTH];
+		neighbors = new int[INITIAL_DEPTH];
+		wordLengths = new int[INITIAL_DEPTH];
+		letters = new char[INITIAL_DEPTH * 2];
+		visited = new long[0];
+	}
+
+	/**
+	 * Finds all words in the dictionary that start at the given cell of the
+	 * given board and stores them in the board. Only words whose length lies
+	 * within the range given by the settings are stored, and paths are not
+	 * extended past the maximum length. If the settings have a tracker, only
+	 * words that the tracker has not yet seen are stored, each with the first
+	 * path found for it, and prefixes whose words have all been found already
+	 * are not searched.
+	 *
+	 * @param board The board in which to search for words
+	 * @param start Id of the cell every word must start at
+	 * @param settings The settings of the solve this search is part of
+	 */
+	void solveFromCell(BoggleBoard board, int start, SolveSettings settings) {
+		solveFromPath(board, new int[] {start}, settings, null);
+	}
+
+	/**
+	 * Finds all words in the dictionary that start with the given path of the
+	 * given board and stores them in the board, as solveFromCell() does. Words
+	 * spelled by a proper prefix of the path are not stored.
+	 *
+	 * If a forker is given and the search is running in a ForkJoinPool whose
+	 * threads are running short of queued work, branches of the search within
+	 * MAX_SPLIT_DEPTH cells of the start are not searched here but handed to
+	 * the forker, as the path leading to the branch, to be searched by another
+	 * task. The forker must not search a branch on this thread before this
+	 * search returns, since the branch would reuse its buffers; forking a
+	 * task for the branch and joining it afterwards is safe.
+	 *
+	 * @param board The board in which to search for words
+	 * @param path Ids of the cells every word must start with
+	 * @param settings The settings of the solve this search is part of
+	 * @param forker Receives the branches split off from this search, or null
+	 *        to search every branch here
+	 */
+	void solveFromPath(BoggleBoard board, int[] path, SolveSettings settings,
+			Consumer<int[]> forker) {
+		search(board, path, settings, forker, -1, 0);
+	}
+
+	/**
+	 * Finds all words in the dictionary that start at the given cell of the
+	 * given board and pass through the given cell, and stores them in the
+	 * board as solveFromCell() does. Paths are only extended while they can
+	 * still reach the cell they must pass through within the given number of
+	 * letters.
+	 *
+	 * @param board The board in which to search for words
+	 * @param start Id of the cell every word must start at
+	 * @param through Id of the cell every word must pass through
+	 * @param limit Greatest number of letters in a word that can be found
+	 * @param settings The settings of the solve this search is part of
+	 */
+	void solveThroughCell(BoggleBoard board, int start, int through, int limit,
+			SolveSettings settings) {
+		search(board, new int[] {start}, settings, null, through, limit);
+	}
+
+	/**
+	 * Searches from the given path as solveFromPath() does, only storing
+	 * paths that pass through the given cell, if any
+	 *
+	 * @param board The board in which to search for words
+	 * @param path Ids of the cells every word must start with
+	 * @param settings The settings of the solve this search is part of
+	 * @param forker Receives the branches split off from this search, or null
+	 *        to search every branch here
+	 * @param through Id of the cell every word must pass through, or -1 to
+	 *        store every word
+	 * @param limit Greatest number of letters in a word that can be found,
+	 *        only used if a cell to pass through is given
+	 */
+	private void search(BoggleBoard board, int[] path, SolveSettings settings,
+			Consumer<int[]> forker, int through, int limit) {
+		Dictionary dictionary = settings.dictionary;
+		WordTracker tracker = settings.tracker;
+		TileTransitions transitions = board.alphabet.getTransitions(dictionary);
+		byte[] tileLengths = board.alphabet.lengths;
+		byte[] tiles = board.tiles;
+		int[] adjacencyStarts = board.adjacencyStarts;
+		int[] adjacency = board.adjacency;
+		if (visited.length * 64 < tiles.length) {
+			visited = new long[(tiles.length + 63) / 64];
+		}
+
+		// Walk the given path, stopping if it leads nowhere
+		int depth = -1;
+		for (int cell : path) {
+			int node = transitions.step(dictionary,
+					depth < 0 ? dictionary.getRoot() : nodes[depth], tiles[cell]);
+			int wordLength = depth < 0 ? 0 : wordLengths[depth];
+			if (node == Dictionary.NO_NODE || 
+					wordLength + tileLengths[tiles[cell]] > settings.maxLength ||
+					!canComplete(dictionary, board, node) ||
+					(tracker != null && tracker.isExhausted(node))) {
+				if (COUNTING) {
+					countRejection(settings, board, node);
+				}
+				clearVisited(depth);
+				report(settings, board.toParentCell(path[0]), 0, 0);
+				return;
+			}
+			depth++;
+			push(board, depth, cell, node, wordLength);
+		}
+		int base = depth;
+		if (isVisited(through) && isNewWord(settings, depth)) {
+			addSolution(board, depth);
+		}
+		// True while the path has not been extended since its last cell was
+		// added, so that it is a dead end if its cell is removed
+		boolean leaf = true;
+		if (COUNTING) {
+			expanded++;
+		}
+
+		while (depth >= base) {
+			int cell = cells[depth];
+			int neighbor = neighbors[depth];
+			if (neighbor == adjacencyStarts[cell + 1]) {
+				if (COUNTING && leaf) {
+					deadEnds++;
+					deadEndDepths += depth + 1;
+				}
+				leaf = false;
+				visited[cell >>> 6] &= ~(1L << cell);
+				depth--;
+				continue;
+			}
+			neighbors[depth] = neighbor + 1;
+			int nextCell = adjacency[neighbor];
+			if ((visited[nextCell >>> 6] & (1L << nextCell)) != 0 ||
+					wordLengths[depth] + tileLengths[tiles[nextCell]] > settings.maxLength) {
+				continue;
+			}
+			int nextNode = transitions.step(dictionary, nodes[depth], tiles[nextCell]);
+			if (nextNode == Dictionary.NO_NODE || 
+					!canComplete(dictionary, board, nextNode) ||
+					(tracker != null && tracker.isExhausted(nextNode))) {
+				if (COUNTING) {
+					countRejection(settings, board, nextNode);
+				}
+				continue;
+			}
+			// A path that has yet to pass through the cell must be able to
+			// reach it, one letter per space at least, within the limit and
+			// before its words end
+			if (through >= 0 && !isVisited(through) && (wordLengths[depth] +
+					tileLengths[tiles[nextCell]] + distance(board, nextCell, through) > limit ||
+					distance(board, nextCell, through) > dictionary.getMaxSuffixLength(nextNode))) {
+				continue;
+			}
+			if (forker != null && depth < MAX_SPLIT_DEPTH &&
+					ForkJoinTask.inForkJoinPool() &&
+					ForkJoinTask.getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS) {
+				int[] branch = Arrays.copyOf(cells, depth + 2);
+				branch[depth + 1] = nextCell;
+				forker.accept(branch);
+				leaf = false;
+				continue;
+			}
+			depth++;
+			push(board, depth, nextCell, nextNode, wordLengths[depth - 1]);
+			leaf = true;
+			if (COUNTING) {
+				expanded++;
+			}
+			if (isVisited(through) && isNewWord(settings, depth)) {
+				addSolution(board, depth);
+			}
+		}
+		clearVisited(base - 1);
+		int solutions = 0;
+		long queued = COUNTING ? System.nanoTime() : 0;
+		if (found != null) {
+			solutions = found.size();
+			if (settings.sink != null) {
+				settings.sink.accept(found);
+			} else {
+				board.addSolutions(found);
+			}
+			found = null;
+		}
+		report(settings, board.toParentCell(path[0]), solutions,
+				COUNTING ? System.nanoTime() - queued : 0);
+	}
+
+	/**
+	 * Counts an extension of a path to the given node as rejected, for the
+	 * first reason it was
+	 *
+	 * @param settings The settings of the solve this search is part of
+	 * @param board The board being searched
+	 * @param node The node the path would have reached
+	 */
+	private void countRejection(SolveSettings settings, BoggleBoard board, int node) {
+		if (node == Dictionary.NO_NODE) {
+			prefixRejected++;
+		} else if (!canComplete(settings.dictionary, board, node)) {
+			letterRejected++;
+		} else if (settings.tracker != null && settings.tracker.isExhausted(node)) {
+			exhaustedRejected++;
+		}
+	}
+
+	/**
+	 * Adds the work counted by the current search to the solve's statistics,
+	 * if counting and the solve has statistics, and starts the counts over
+	 *
+	 * @param settings The settings of the solve this search is part of
+	 * @param start Id of the cell the search started at
+	 * @param solutions Number of solutions the search found
+	 * @param enqueueNanos Nanoseconds spent queueing the solutions
+	 */
+	private void report(SolveSettings settings, int start, int solutions, long enqueueNanos) {
+		if (!COUNTING) {
+			return;
+		}
+		if (settings.statistics != null) {
+			settings.statistics.record(start, expanded, prefixRejected, letterRejected,
+					exhaustedRejected, deadEnds, deadEndDepths, solutions, enqueueNanos);
+		}
+		expanded = 0;
+		prefixRejected = 0;
+		letterRejected = 0;
+		exhaustedRejected = 0;
+		deadEnds = 0;
+		deadEndDepths = 0;
+	}
+
+	/**
+	 * Marks every cell of the current path, up to and including the given
+	 * depth, as not visited
+	 *
+	 * @param depth Depth of the last cell to be cleared, or -1 for none
+	 */
+	private void clearVisited(int depth) {
+		for (int i = 0; i <= depth; i++) {
+			visited[cells[i] >>> 6] &= ~(1L << cells[i]);
+		}
+	}
+
+	/**
+	 * Returns true iff the given cell is on the current path, or no cell is
+	 * given
+	 *
+	 * @param cell Id of the cell, or -1
+	 * @return True if cell is -1 or on the current path, else false
+	 */
+	private boolean isVisited(int cell) {
+		return cell < 0 || (visited[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Returns the number of steps between the given cells of the given board,
+	 * moving to any of a space's neighbors with each step
+	 *
+	 * @param board The board being searched
+	 * @param from Id of the first cell
+	 * @param to Id of the second cell
+	 * @return The least number of steps between from and to
+	 */
+	private static int distance(BoggleBoard board, int from, int to) {
+		int width = board.getWidth();
+		return Math.max(Math.abs(from % width - to % width), Math.abs(from / width - to / width));
+	}
+
+	/**
+	 * Returns true iff the current path, ending at the given depth, spells a
+	 * word that should be stored. Marks the word as found in the tracker, if
+	 * any, even if it is too short to be stored, so that prefixes leading
+	 * only to short words can still be recognized as exhausted.
+	 *
+	 * @param settings The settings of the solve this search is part of
+	 * @param depth Depth of the last cell of the path
+	 * @return True if the path spells a word of an accepted length and the
+	 *         tracker, if any, had not seen it yet
+	 */
+	private boolean isNewWord(SolveSettings settings, int depth) {
+		if (!settings.dictionary.isWord(nodes[depth])) {
+			return false;
+		}
+		WordTracker tracker = settings.tracker;
+		if (tracker != null && !(tracker.tracksNodes() ? tracker.markFound(nodes, depth + 1)
+				: tracker.markFound(new String(letters, 0, wordLengths[depth])))) {
+			return false;
+		}
+		return wordLengths[depth] >= settings.minLength;
+	}
+
+	/**
+	 * Returns false if no word below the given node can be spelled with the
+	 * letters of the given board, because every such word needs a letter the
+	 * board lacks, or needs a letter twice that the board has only once
+	 *
+	 * @param dictionary The dictionary being searched
+	 * @param board The board being searched
+	 * @param node A node of the dictionary
+	 * @return False if the board cannot complete node to a word, true if it
+	 *         might
+	 */
+	static boolean canComplete(Dictionary dictionary, BoggleBoard board, int node) {
+		return (dictionary.getRequiredLetters(node) & ~board.letters) == 0 &&
+				(dictionary.getRepeatedLetters(node) & ~board.repeatedLetters) == 0;
+	}
+
+	/**
+	 * Places the given cell on the path at the given depth and marks it as
+	 * visited
+	 *
+	 * @param board The board being searched
+	 * @param depth Depth of the cell in the path
+	 * @param cell Id of the cell
+	 * @param node Dictionary node reached by the path including cell
+	 * @param wordLength Number of letters in the path before cell
+	 */
+	private void push(BoggleBoard board, int depth, int cell, int node, int wordLength) {
+		if (depth == cells.length) {
+			cells = Arrays.copyOf(cells, depth * 2);
+			nodes = Arrays.copyOf(nodes, depth * 2);
+			neighbors = Arrays.copyOf(neighbors, depth * 2);
+			wordLengths = Arrays.copyOf(wordLengths, depth * 2);
+		}
+		if (wordLength + board.alphabet.maxLength > letters.length) {
+			letters = Arrays.copyOf(letters, (wordLength + board.alphabet.maxLength) * 2);
+		}
+		wordLength = board.alphabet.spell(board.tiles[cell], letters, wordLength);
+		cells[depth] = cell;
+		nodes[depth] = node;
+		neighbors[depth] = board.adjacencyStarts[cell];
+		wordLengths[depth] = wordLength;
+		visited[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * Records the current path, ending at the given depth, as a solution of
+	 * the given board
+	 *
+	 * @param board The board being searched
+	 * @param depth Depth of the last cell of the path
+	 */
+	private void addSolution(BoggleBoard board, int depth) {
+		String word = new String(letters, 0, wordLengths[depth]);
+		if (found == null) {
+			found = new ArrayList<BogglePath>();
+		}
+		found.add(board.createPath(cells, depth + 1, word));
+	}
+}
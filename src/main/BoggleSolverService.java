@@ -0,0 +1,233 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Solves many boards at once, for workloads of many small boards rather than
+ * one large one. Each board is solved linearly by one of a fixed set of
+ * worker threads, so no board pays for splitting work between threads, and
+ * boards are solved concurrently with each other instead. Every board is
+ * solved with the same dictionary, which must not be modified while the
+ * service is in use. Submitting a board never blocks; its result is
+ * delivered through a CompletableFuture.
+ * 
+ * The service keeps throughput and latency statistics, available from
+ * getStats(). Latency is measured from submission to completion, so it
+ * includes time spent waiting for a worker.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class BoggleSolverService implements AutoCloseable {
+	/**
+	 * Number of most recent latencies kept for computing percentiles
+	 */
+	private static final int LATENCY_SAMPLES = 8192;
+	/**
+	 * Value of a latency sample that has not been written yet
+	 */
+	private static final long UNRECORDED = -1;
+	/**
+	 * Value of a timestamp that has not been taken yet. System.nanoTime()
+	 * may return any other value, including 0 and negative values
+	 */
+	private static final long UNSET = Long.MIN_VALUE;
+	
+	/**
+	 * Dictionary every board is solved with
+	 */
+	private final Dictionary dictionary;
+	/**
+	 * Runs the solves
+	 */
+	private final ExecutorService workers;
+	/**
+	 * Latencies of the most recent solves, in nanoseconds, used as a ring.
+	 * A slot holds UNRECORDED until a solve first writes it
+	 */
+	private final AtomicLongArray latencies;
+	/**
+	 * Number of ring slots ever claimed by a finishing solve
+	 */
+	private final AtomicLong recorded;
+	/**
+	 * Number of boards solved, counted only once a solve's latency has been
+	 * written
+	 */
+	private final AtomicLong solved;
+	/**
+	 * System.nanoTime() when the first board was submitted, or UNSET if none
+	 * has been
+	 */
+	private final AtomicLong firstSubmitted;
+	/**
+	 * Latest System.nanoTime() at which a board was solved, or UNSET if none
+	 * has been. Workers finish out of order, so it only ever moves forward
+	 */
+	private final AtomicLong lastSolved;
+	
+	/**
+	 * Creates a service that solves boards with the given dictionary, using
+	 * one worker per available processor
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 */
+	public BoggleSolverService(Dictionary dictionary) {
+		this(dictionary, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a service that solves boards with the given dictionary, using
+	 * the given number of workers
+	 * 
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param threads Number of boards that may be solved at once
+	 * @throws IllegalArgumentException if threads is less than 1
+	 */
+	public BoggleSolverService(Dictionary dictionary, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be "
+					+ "greater than 0");
+		}
+		this.dictionary = dictionary;
+		this.workers = Executors.newFixedThreadPool(threads, new WorkerFactory());
+		long[] unrecorded = new long[LATENCY_SAMPLES];
+		Arrays.fill(unrecorded, UNRECORDED);
+		this.latencies = new AtomicLongArray(unrecorded);
+		this.recorded = new AtomicLong();
+		this.solved = new AtomicLong();
+		this.firstSubmitted = new AtomicLong(UNSET);
+		this.lastSolved = new AtomicLong(UNSET);
+	}
+	
+	/**
+	 * Solves the given board, storing every path that spells a word in it
+	 * 
+	 * @param board The board in which to search for words
+	 * @return A future that completes with the board once it is solved
+	 * @throws java.util.concurrent.RejectedExecutionException if the service
+	 *         has been closed
+	 */
+	public CompletableFuture<BoggleBoard> submit(BoggleBoard board) {
+		return submit(board, SolveMode.ALL_PATHS, 0, BoggleBot.NO_MAX_LENGTH);
+	}
+	
+	/**
+	 * Solves the given board, storing the words whose length lies within the
+	 * given range in it
+	 * 
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store, or
+	 *        BoggleBot.NO_MAX_LENGTH
+	 * @return A future that completes with the board once it is solved
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 * @throws java.util.concurrent.RejectedExecutionException if the service
+	 *         has been closed
+	 */
+	public CompletableFuture<BoggleBoard> submit(BoggleBoard board, SolveMode mode,
+			int minLength, int maxLength) {
+		// Checks the lengths now rather than on a worker
+		SolveSettings.checkLengths(minLength, maxLength);
+		long submitted = System.nanoTime();
+		firstSubmitted.compareAndSet(UNSET, submitted);
+		return CompletableFuture.supplyAsync(() -> {
+			BoggleBot.solveBoardLinear(dictionary, board, mode, minLength, maxLength);
+			recordLatency(submitted);
+			return board;
+		}, workers);
+	}
+	
+	/**
+	 * Solves every given board, storing every path that spells a word in it
+	 * 
+	 * @param boards The boards in which to search for words
+	 * @return One future per board, in the order given, each completing with
+	 *         its board once it is solved
+	 * @throws java.util.concurrent.RejectedExecutionException if the service
+	 *         has been closed
+	 */
+	public List<CompletableFuture<BoggleBoard>> submitAll(Collection<BoggleBoard> boards) {
+		List<CompletableFuture<BoggleBoard>> results =
+				new ArrayList<CompletableFuture<BoggleBoard>>(boards.size());
+		for (BoggleBoard board : boards) {
+			results.add(submit(board));
+		}
+		return results;
+	}
+	
+	/**
+	 * Returns the throughput and latency of the solves completed so far
+	 * 
+	 * @return A snapshot of this service's statistics
+	 */
+	public SolverStats getStats() {
+		long count = solved.get();
+		int slots = (int) Math.min(recorded.get(), LATENCY_SAMPLES);
+		long[] recent = new long[slots];
+		int samples = 0;
+		for (int i = 0; i < slots; i++) {
+			// Skips slots claimed by solves that have not written them yet
+			long latency = latencies.get(i);
+			if (latency != UNRECORDED) {
+				recent[samples++] = latency;
+			}
+		}
+		recent = Arrays.copyOf(recent, samples);
+		long elapsed = count == 0 ? 0 : lastSolved.get() - firstSubmitted.get();
+		return new SolverStats(count, elapsed, recent);
+	}
+	
+	/**
+	 * Stops accepting boards. Boards already submitted are still solved.
+	 */
+	@Override
+	public void close() {
+		workers.shutdown();
+	}
+	
+	/**
+	 * Records the latency of a solve that has just completed. The latency is
+	 * written before the solve is counted, so that getStats() never counts a
+	 * solve without its latency
+	 * 
+	 * @param submitted System.nanoTime() when the board was submitted
+	 */
+	private void recordLatency(long submitted) {
+		long now = System.nanoTime();
+		long index = recorded.getAndIncrement();
+		latencies.set((int) (index % LATENCY_SAMPLES), now - submitted);
+		lastSolved.accumulateAndGet(now, Math::max);
+		solved.incrementAndGet();
+	}
+	
+	/**
+	 * Creates the service's workers, as daemon threads so that an open
+	 * service does not keep the program running
+	 */
+	private static class WorkerFactory implements ThreadFactory {
+		private static final AtomicInteger SERVICES = new AtomicInteger();
+		
+		private final int service = SERVICES.incrementAndGet();
+		private final AtomicInteger workers = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "boggle-solver-" + service + "-" +
+					workers.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary stored as a minimal acyclic word automaton, or DAWG. Unlike a
+ * trie, nodes are shared between every prefix that can be completed by the
+ * same set of suffixes, so common endings such as "-ing" or "-ness" are only
+ * stored once. This makes the DAWG many times smaller than a Trie holding
+ * the same words, while lookups work the same way.
+ *
+ * Because a node may be reached by many prefixes, nodes do not identify
+ * prefixes, and the word count of a node is the number of suffixes that
+ * complete it. Nodes are stored in the same flat int pools as Trie.
+ *
+ * A DAWG cannot be modified once built. It is built by a Builder, which
+ * accepts words in sorted order and minimizes the automaton as it goes, so
+ * the unminimized structure never has to be held in memory.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class Dawg implements Dictionary {
+	private static final int WORD_FLAG = 1 << 31;
+
+	/**
+	 * Stores, for every node, which letters have a child and whether or not
+	 * the node ends a word
+	 */
+	private final int[] masks;
+	/**
+	 * Stores, for every node, the index in edges where its children begin
+	 */
+	private final int[] bases;
+	/**
+	 * Stores the children of every node, ordered by node then letter
+	 */
+	private final int[] edges;
+	/**
+	 * Stores, for every node, the number of suffixes that complete it
+	 */
+	private final int[] wordCounts;
+	/**
+	 * Stores, for every node, the letters required and the letters repeated
+	 * by every suffix that completes it
+	 */
+	private final int[] requiredLetters;
+	private final int[] repeatedLetters;
+	/**
+	 * Stores, for every node, the number of letters in the longest suffix
+	 * that completes it
+	 */
+	private final int[] suffixLengths;
+	/**
+	 * Number of letters in the longest word
+	 */
+	private final int maxWordLength;
+
+	/**
+	 * Creates a DAWG from its flattened pools
+	 */
+	private Dawg(int[] masks, int[] bases, int[] edges, int[] wordCounts, int maxWordLength) {
+		this.masks = masks;
+		this.bases = bases;
+		this.edges = edges;
+		this.wordCounts = wordCounts;
+		this.maxWordLength = maxWordLength;
+		int[][] suffixLetters = SuffixLetters.compute(this);
+		this.requiredLetters = suffixLetters[0];
+		this.repeatedLetters = suffixLetters[1];
+		this.suffixLengths = suffixLetters[2];
+	}
+
+	@Override
+	public int getRoot() {
+		return 0;
+	}
+
+	@Override
+	public int getChild(int node, int letter) {
+		int mask = masks[node];
+		int bit = 1 << letter;
+		if ((mask & bit) == 0) {
+			return NO_NODE;
+		}
+		return edges[bases[node] + Integer.bitCount(mask & (bit - 1))];
+	}
+
+	@Override
+	public boolean isWord(int node) {
+		return (masks[node] & WORD_FLAG) != 0;
+	}
+
+	@Override
+	public int getWordCount(int node) {
+		return wordCounts[node];
+	}
+
+	@Override
+	public int getNodeCount() {
+		return masks.length;
+	}
+
+	@Override
+	public int getMaxWordLength() {
+		return maxWordLength;
+	}
+
+	@Override
+	public int getMaxSuffixLength(int node) {
+		return suffixLengths[node];
+	}
+
+	@Override
+	public int getRequiredLetters(int node) {
+		return requiredLetters[node];
+	}
+
+	@Override
+	public int getRepeatedLetters(int node) {
+		return repeatedLetters[node];
+	}
+
+	@Override
+	public boolean hasPrefixNodes() {
+		return false;
+	}
+
+	/**
+	 * Builds a Dawg from words added in sorted order. Follows the incremental
+	 * construction of Daciuk et al.: the path of the most recently added word
+	 * is kept unminimized, and whenever a new word diverges from it, the part
+	 * of the path below the divergence is replaced by equivalent nodes that
+	 * have already been built, or registered as new ones.
+	 */
+	public static class Builder {
+		/**
+		 * Root of the automaton being built
+		 */
+		private final BuildNode root;
+		/**
+		 * Minimized nodes, keyed by a description of their outgoing edges and
+		 * whether they end a word. Two nodes are equivalent iff their keys are
+		 * equal
+		 */
+		private final Map<String, BuildNode> register;
+		/**
+		 * Nodes along the path of the last word added, below the root
+		 */
+		private final List<BuildNode> path;
+		/**
+		 * Last word added
+		 */
+		private String previousWord;
+		/**
+		 * Number of letters in the longest word added
+		 */
+		private int maxWordLength;
+		/**
+		 * Set once a word has been added
+		 */
+		private boolean added;
+		/**
+		 * Set once build() has been called
+		 */
+		private boolean built;
+
+		/**
+		 * Creates a builder with no words
+		 */
+		public Builder() {
+			root = new BuildNode();
+			register = new HashMap<String, BuildNode>();
+			path = new ArrayList<BuildNode>();
+			previousWord = "";
+		}
+
+		/**
+		 * Adds the given word. Words must be added in sorted order, ignoring
+		 * case; adding the same word twice in a row has no effect.
+		 *
+		 * @param word The word to be added
+		 * @throws IllegalArgumentException if word contains characters other
+		 *         than letters from 'a' to 'z', or sorts before the previous
+		 *         word added
+		 * @throws IllegalStateException if build() has already been called
+		 */
+		public void add(String word) {
+			if (built) {
+				throw new IllegalStateException("Dawg has already been built");
+			}
+			word = word.toLowerCase();
+			for (int i = 0; i < word.length(); i++) {
+				if (word.charAt(i) < 'a' || word.charAt(i) > 'z') {
+					throw new IllegalArgumentException("Dawg can only contain "
+							+ "letters from 'a' to 'z'");
+				}
+			}
+			int order = word.compareTo(previousWord);
+			if (order < 0) {
+				throw new IllegalArgumentException("Words must be added in "
+						+ "sorted order, but \"" + word + "\" follows \""
+						+ previousWord + "\"");
+			} else if (order == 0 && added) {
+				return;
+			}
+			int common = 0;
+			while (common < word.length() && common < previousWord.length() &&
+					word.charAt(common) == previousWord.charAt(common)) {
+				common++;
+			}
+			minimize(common);
+			BuildNode node = common == 0 ? root : path.get(common - 1);
+			for (int i = common; i < word.length(); i++) {
+				BuildNode child = new BuildNode();
+				node.children[word.charAt(i) - 'a'] = child;
+				path.add(child);
+				node = child;
+			}
+			node.word = true;
+			previousWord = word;
+			maxWordLength = Math.max(maxWordLength, word.length());
+			added = true;
+		}
+
+		/**
+		 * Finishes the automaton and returns it. The builder cannot be used
+		 * afterwards.
+		 *
+		 * @return A Dawg containing every word added
+		 */
+		public Dawg build() {
+			if (!built) {
+				minimize(0);
+				built = true;
+			}
+			// Number nodes so that the root is 0, then flatten them
+			List<BuildNode> nodes = new ArrayList<BuildNode>();
+			root.id = 0;
+			nodes.add(root);
+			for (int i = 0; i < nodes.size(); i++) {
+				for (BuildNode child : nodes.get(i).children) {
+					if (child != null && child.id < 0) {
+						child.id = nodes.size();
+						nodes.add(child);
+					}
+				}
+			}
+			int[] masks = new int[nodes.size()];
+			int[] bases = new int[nodes.size()];
+			int[] wordCounts = new int[nodes.size()];
+			int[] edges = new int[16];
+			int edgeCount = 0;
+			for (BuildNode node : nodes) {
+				bases[node.id] = edgeCount;
+				wordCounts[node.id] = node.getWordCount();
+				masks[node.id] = node.word ? WORD_FLAG : 0;
+				for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+					if (node.children[letter] != null) {
+						masks[node.id] |= 1 << letter;
+						if (edgeCount == edges.length) {
+							edges = Arrays.copyOf(edges, edgeCount * 2);
+						}
+						edges[edgeCount++] = node.children[letter].id;
+					}
+				}
+			}
+			for (BuildNode node : nodes) {
+				node.id = -1;
+			}
+			return new Dawg(masks, bases, Arrays.copyOf(edges, edgeCount), wordCounts,
+					maxWordLength);
+		}
+
+		/**
+		 * Replaces or registers every node of the last word's path below the
+		 * given depth, deepest first, then removes them from the path
+		 *
+		 * @param depth Number of nodes of the path to leave unminimized
+		 */
+		private void minimize(int depth) {
+			for (int i = path.size() - 1; i >= depth; i--) {
+				BuildNode node = path.remove(i);
+				BuildNode parent = i == 0 ? root : path.get(i - 1);
+				String key = node.getKey();
+				BuildNode equivalent = register.get(key);
+				if (equivalent == null) {
+					node.registeredId = register.size();
+					register.put(key, node);
+				} else {
+					parent.children[previousWord.charAt(i) - 'a'] = equivalent;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A node of a Dawg under construction
+	 */
+	private static class BuildNode {
+		final BuildNode[] children = new BuildNode[ALPHABET_SIZE];
+		boolean word;
+		/**
+		 * Position of this node in the builder's register, or -1 if it has
+		 * not been registered
+		 */
+		int registeredId = -1;
+		/**
+		 * Id of this node while the Dawg is being flattened, else -1
+		 */
+		int id = -1;
+		/**
+		 * Number of suffixes completing this node, or -1 if not yet computed
+		 */
+		private int wordCount = -1;
+
+		/**
+		 * Returns a string that is equal for two registered nodes iff they
+		 * end words in the same way and have the same children for the same
+		 * letters. Every child must already be registered.
+		 */
+		String getKey() {
+			StringBuilder key = new StringBuilder();
+			key.append(word ? '1' : '0');
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				if (children[letter] != null) {
+					key.append((char) ('a' + letter)).append(children[letter].registeredId);
+				}
+			}
+			return key.toString();
+		}
+
+		/**
+		 * Returns the number of suffixes that complete this node
+		 */
+		int getWordCount() {
+			if (wordCount < 0) {
+				int count = word ? 1 : 0;
+				for (BuildNode child : children) {
+					if (child != null) {
+						count += child.getWordCount();
+					}
+				}
+				wordCount = count;
+			}
+			return wordCount;
+		}
+	}
+}
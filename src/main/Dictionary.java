@@ -0,0 +1,226 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * A set of words that can be walked one letter at a time. Every prefix of a
+ * word in the dictionary is represented by a node, identified by an int
+ * handle. Starting from getRoot(), which represents the empty string,
+ * getChild() follows a letter from a node and isWord() reports whether the
+ * string leading to a node is a word. Node handles are numbered from 0 up to
+ * getNodeCount() - 1.
+ *
+ * Letters are identified by their index, from 0 ('a') to 25 ('z').
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public interface Dictionary {
+	/**
+	 * Node handle returned when a step leaves this dictionary
+	 */
+	int NO_NODE = -1;
+	/**
+	 * Number of letters that words in a dictionary may contain
+	 */
+	int ALPHABET_SIZE = 26;
+
+	/**
+	 * Returns the handle of the root node of this dictionary, which
+	 * represents the empty string
+	 *
+	 * @return the root node of this dictionary
+	 */
+	int getRoot();
+
+	/**
+	 * Returns the node reached by following the given letter from the given
+	 * node
+	 *
+	 * @param node The node to step from
+	 * @param letter Index of the letter, from 0 ('a') to 25 ('z')
+	 * @return The node reached, or NO_NODE if no word in this dictionary
+	 *         continues with the letter from node
+	 */
+	int getChild(int node, int letter);
+
+	/**
+	 * Returns true iff the given node ends a word in this dictionary
+	 *
+	 * @param node The node to be checked
+	 * @return True if the string leading to node is a word, else false
+	 */
+	boolean isWord(int node);
+
+	/**
+	 * Returns the number of words in this dictionary that start with the
+	 * string leading to the given node, including that string itself
+	 *
+	 * @param node The node whose subtree will be counted
+	 * @return The number of words in the subtree of node
+	 */
+	int getWordCount(int node);
+
+	/**
+	 * Returns the number of nodes in this dictionary, including the root
+	 *
+	 * @return the number of nodes in this dictionary
+	 */
+	int getNodeCount();
+
+	/**
+	 * Returns the letters that every word below the given node needs after
+	 * the prefix leading to the node: a letter is included iff it appears in
+	 * every suffix that completes the node to a word. A search can skip any
+	 * node that requires a letter its board does not have.
+	 *
+	 * Dictionaries that do not track this may return 0, which never causes a
+	 * node to be skipped.
+	 *
+	 * @param node The node to be checked
+	 * @return The required letters of node, as a mask with bit i set for the
+	 *         letter of index i
+	 */
+	default int getRequiredLetters(int node) {
+		return 0;
+	}
+
+	/**
+	 * Returns the letters that every word below the given node needs at
+	 * least twice after the prefix leading to the node. A search can skip any
+	 * node that repeats a letter its board has only once.
+	 *
+	 * Dictionaries that do not track this may return 0, which never causes a
+	 * node to be skipped.
+	 *
+	 * @param node The node to be checked
+	 * @return The repeated letters of node, as a mask with bit i set for the
+	 *         letter of index i
+	 */
+	default int getRepeatedLetters(int node) {
+		return 0;
+	}
+
+	/**
+	 * Returns the number of letters in the longest suffix that completes the
+	 * given node to a word, so that no word below the node is longer than the
+	 * prefix leading to it by more than this. A search can skip any path that
+	 * needs more letters than this to reach a space it must pass through.
+	 *
+	 * Dictionaries that do not track this may return any upper bound, by
+	 * default Integer.MAX_VALUE.
+	 *
+	 * @param node The node to be checked
+	 * @return An upper bound on the length of the suffixes of node
+	 */
+	default int getMaxSuffixLength(int node) {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Returns true iff every node of this dictionary is reached by exactly one
+	 * prefix, as in a trie. Only then can a node stand for the prefix leading
+	 * to it, so that, for example, a word can be identified by the node that
+	 * ends it.
+	 *
+	 * @return True if nodes identify prefixes, else false
+	 */
+	default boolean hasPrefixNodes() {
+		return true;
+	}
+
+	/**
+	 * Returns the number of letters in the longest word in this dictionary.
+	 * By default walks every node, so callers that need it often should keep
+	 * the result unless the implementation keeps it itself.
+	 *
+	 * @return The length of the longest word, or 0 if there are no words
+	 */
+	default int getMaxWordLength() {
+		// Longest completion of each node to a word, plus 2, so that 0 means
+		// not yet computed and 1 means no word can be reached
+		int[] longest = new int[getNodeCount()];
+		int[] stack = new int[16];
+		int[] nextLetters = new int[16];
+		int top = 0;
+		stack[0] = getRoot();
+		while (top >= 0) {
+			int node = stack[top];
+			if (nextLetters[top] < ALPHABET_SIZE) {
+				int child = getChild(node, nextLetters[top]++);
+				if (child != NO_NODE && longest[child] == 0) {
+					if (++top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+						nextLetters = Arrays.copyOf(nextLetters, top * 2);
+					}
+					stack[top] = child;
+					nextLetters[top] = 0;
+				}
+				continue;
+			}
+			int length = isWord(node) ? 0 : -1;
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				int child = getChild(node, letter);
+				if (child != NO_NODE && longest[child] > 1) {
+					length = Math.max(length, longest[child] - 1);
+				}
+			}
+			longest[node] = length + 2;
+			top--;
+		}
+		return Math.max(0, longest[getRoot()] - 2);
+	}
+
+	/**
+	 * Returns the node reached by following the given letter from the given
+	 * node
+	 *
+	 * @param node The node to step from
+	 * @param c The letter to follow, in either case
+	 * @return The node reached, or NO_NODE if no word in this dictionary
+	 *         continues with c from node
+	 */
+	default int step(int node, char c) {
+		int letter = (c | 0x20) - 'a';
+		return letter >= 0 && letter < ALPHABET_SIZE ? getChild(node, letter) : NO_NODE;
+	}
+
+	/**
+	 * Returns the node reached by following every letter of the given tile,
+	 * such as "Qu", from the given node
+	 *
+	 * @param node The node to step from
+	 * @param tile The letters to follow, in either case
+	 * @return The node reached, or NO_NODE if no word in this dictionary
+	 *         continues with tile from node
+	 */
+	default int step(int node, String tile) {
+		for (int i = 0; i < tile.length() && node != NO_NODE; i++) {
+			node = step(node, tile.charAt(i));
+		}
+		return node;
+	}
+
+	/**
+	 * Determines whether or not a given string, prefix, is the prefix to any
+	 * word contained in this dictionary.
+	 *
+	 * @param prefix The string to be checked in this dictionary
+	 * @return True if the provided string is a prefix to any word in this
+	 *         dictionary, else returns false
+	 */
+	default boolean containsPrefix(String prefix) {
+		return step(getRoot(), prefix) != NO_NODE;
+	}
+
+	/**
+	 * Determines whether or not a given string, word, is contained in this
+	 * dictionary
+	 *
+	 * @param word The string to be checked in this dictionary
+	 * @return True if this word is in this dictionary, else returns false
+	 */
+	default boolean containsWord(String word) {
+		int node = step(getRoot(), word);
+		return node != NO_NODE && isWord(node);
+	}
+}
@@ -0,0 +1,42 @@
+package main;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one load of a dictionary by DictionaryParser,
+ * lasting from opening the words to the finished dictionary. The load is
+ * split into reading the words into a builder and building the dictionary
+ * from them.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+@Name("main.DictionaryLoad")
+@Label("Dictionary Load")
+@Category("BoggleBot")
+@Description("A load of a word list into a dictionary")
+class DictionaryLoadEvent extends jdk.jfr.Event {
+	@Label("Source")
+	@Description("The file read, or the bundled dictionary")
+	String source;
+
+	@Label("Kind")
+	String kind;
+
+	@Label("Words")
+	long words;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Read Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long readNanos;
+
+	@Label("Build Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long buildNanos;
+}
@@ -3,14 +3,50 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 /**
  * Class that contains a method that fills and returns a trie with the contents
  * of a specified file. A minimum length can be specified, meaning lines of 
  * insufficient length will be ignored (not added to the resulting trie).
+ * Lines holding anything other than the letters 'a' to 'z', in either case,
+ * cannot be stored in a dictionary, so they are skipped and counted in a
+ * warning printed once the file has been read.
+ * 
+ * Also holds one process-wide copy of the dictionary, loaded at most once and
+ * shared by every solve. It contains every word, so solvers apply minimum and
+ * maximum word lengths when solving rather than when loading.
+ * 
+ * Run as a program, compiles a file of words into a dictionary image that can
+ * be opened with MappedDictionary:
+ * 
+ *     java main.DictionaryParser words.txt dictionary.img [minimum length]
  * 
  * @author DanielMerken
  */
 public class DictionaryParser {
+	/**
+	 * The process-wide dictionary, or null if it has not been requested yet
+	 */
+	private static CompletableFuture<Dictionary> sharedDictionary;
+	
+	/**
+	 * Compiles the file of words named by the first argument into a
+	 * dictionary image written to the file named by the second argument.
+	 * An optional third argument gives the minimum length of words to keep.
+	 * 
+	 * @param args The words file, the image file and the minimum length
+	 * @throws IOException if the image cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2 || args.length > 3) {
+			System.err.println("Usage: java main.DictionaryParser <words file> "
+					+ "<image file> [minimum length]");
+			System.exit(1);
+		}
+		int minLength = args.length == 3 ? Integer.parseInt(args[2]) : 0;
+		MappedDictionary.write(parseFile(args[0], minLength), args[1]);
+	}
 	
 	/**
 	 * Reads and stores every line in the given file into a trie, then returns
@@ -25,31 +61,7 @@ public class DictionaryParser {
 	 *         is of at least the specified length
 	 */
 	public static Trie parseFile(String filename, int minLength) {
-		BufferedReader reader = null;
-		Trie result = new Trie();
-		try {
-			reader = new BufferedReader(new FileReader(filename));
-			// Add one word at a time
-			String inputLine;
-			while ((inputLine = reader.readLine()) != null) {
-				if (inputLine.length() >= minLength) {
-					result.insert(inputLine);
-				}
-			}
-		} catch (IOException e) {
-			System.err.println(e.toString());
-			e.printStackTrace(System.err);
-		} finally {
-			if (reader != null) {
-				try {
-					reader.close();
-				} catch (IOException e) {
-					System.err.println(e.toString());
-					e.printStackTrace(System.err);
-				}
-			}
-		}
-		return result;
+		return loadTrie(filename, minLength);
 	}
 
 	/**
@@ -63,18 +75,147 @@ public class DictionaryParser {
 	 *         is of at least the specified length
 	 */
 	public static Trie parseDictionary(int minLength) {
-		BufferedReader reader = null;
+		return loadTrie(null, minLength);
+	}
+	
+	/**
+	 * Reads every line in the given file into a DAWG, then returns said DAWG.
+	 * Ignores lines in the file that are shorter than the specified minimum
+	 * length. The lines of the file must be sorted.
+	 * 
+	 * @param filename Path to the file whose lines will be scanned in to the 
+	 * 		  resulting DAWG
+	 * @param minLength Minimum length of lines to be returned, shorter lines 
+	 *        will be ignored
+	 * @return A DAWG containing every line of text in the specified file that
+	 *         is of at least the specified length
+	 * @throws IllegalArgumentException if the lines of the file are not sorted
+	 */
+	public static Dawg parseFileDawg(String filename, int minLength) {
+		return loadDawg(filename, minLength);
+	}
+	
+	/**
+	 * Reads every word in the dictionary into a DAWG, then returns said DAWG.
+	 * Ignores words in the dictionary that are shorter than the specified
+	 * minimum length. The DAWG is far smaller than the equivalent trie.
+	 * 
+	 * @param minLength Minimum length of words to be returned, shorter words 
+	 *        will be ignored
+	 * @return A DAWG containing every word in the dictionary that
+	 *         is of at least the specified length
+	 */
+	public static Dawg parseDictionaryDawg(int minLength) {
+		return loadDawg(null, minLength);
+	}
+	
+	/**
+	 * Reads every line of the given file of at least the specified length
+	 * into a trie, and reports the load to Flight Recorder
+	 * 
+	 * @param filename Path to the file to be read, or null to read the
+	 *        dictionary
+	 * @param minLength Minimum length of lines to be read
+	 * @return A trie containing every line read
+	 */
+	private static Trie loadTrie(String filename, int minLength) {
+		DictionaryLoadEvent event = new DictionaryLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
 		Trie result = new Trie();
+		readWords(filename, minLength, result::insert);
+		long read = System.nanoTime();
+		result.trimToSize();
+		commitLoad(event, filename, "trie", result, start, read);
+		return result;
+	}
+	
+	/**
+	 * Reads every line of the given file of at least the specified length
+	 * into a DAWG, and reports the load to Flight Recorder
+	 * 
+	 * @param filename Path to the file to be read, or null to read the
+	 *        dictionary
+	 * @param minLength Minimum length of lines to be read
+	 * @return A DAWG containing every line read
+	 * @throws IllegalArgumentException if the lines read are not sorted
+	 */
+	private static Dawg loadDawg(String filename, int minLength) {
+		DictionaryLoadEvent event = new DictionaryLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
+		Dawg.Builder builder = new Dawg.Builder();
+		readWords(filename, minLength, builder::add);
+		long read = System.nanoTime();
+		Dawg result = builder.build();
+		commitLoad(event, filename, "dawg", result, start, read);
+		return result;
+	}
+	
+	/**
+	 * Ends the given load event and commits it, if Flight Recorder is
+	 * recording it
+	 * 
+	 * @param event The event of the load
+	 * @param filename Path to the file read, or null for the dictionary
+	 * @param kind Kind of dictionary loaded
+	 * @param dictionary The dictionary loaded
+	 * @param start System.nanoTime() when reading began
+	 * @param read System.nanoTime() when reading ended and building began
+	 */
+	private static void commitLoad(DictionaryLoadEvent event, String filename, String kind,
+			Dictionary dictionary, long start, long read) {
+		long end = System.nanoTime();
+		event.end();
+		if (event.shouldCommit()) {
+			event.source = filename == null ? "/resources/dictionary.txt" : filename;
+			event.kind = kind;
+			event.words = dictionary.getWordCount(dictionary.getRoot());
+			event.nodes = dictionary.getNodeCount();
+			event.readNanos = read - start;
+			event.buildNanos = end - read;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Passes every line of the given file that is of at least the specified
+	 * length to the given action, in order. Lines holding anything other than
+	 * letters are skipped, and their number is reported on System.err
+	 * 
+	 * @param filename Path to the file to be read, or null to read the
+	 *        dictionary
+	 * @param minLength Minimum length of lines to be read, shorter lines 
+	 *        will be ignored
+	 * @param action Receives each line that is read
+	 */
+	private static void readWords(String filename, int minLength, Consumer<String> action) {
+		BufferedReader reader = null;
 		try {
-			reader = new BufferedReader(new InputStreamReader(
-					DictionaryParser.class.getResourceAsStream(
-							"/resources/dictionary.txt")));
+			if (filename == null) {
+				reader = new BufferedReader(new InputStreamReader(
+						DictionaryParser.class.getResourceAsStream(
+								"/resources/dictionary.txt")));
+			} else {
+				reader = new BufferedReader(new FileReader(filename));
+			}
 			// Add one word at a time
 			String inputLine;
+			int skipped = 0;
 			while ((inputLine = reader.readLine()) != null) {
-				if (inputLine.length() >= minLength) {
-					result.insert(inputLine);
+				if (inputLine.length() < minLength) {
+					continue;
 				}
+				if (isLetters(inputLine)) {
+					action.accept(inputLine);
+				} else {
+					skipped++;
+				}
+			}
+			if (skipped > 0) {
+				System.err.println("Skipped " + skipped + " lines of " +
+						(filename == null ? "the dictionary" : filename) +
+						" holding characters other than letters from 'a' to 'z'");
 			}
 		} catch (IOException e) {
 			System.err.println(e.toString());
@@ -89,6 +230,46 @@ public class DictionaryParser {
 				}
 			}
 		}
-		return result;
+	}
+	
+	/**
+	 * Returns true iff every character of the given line is a letter from 'a'
+	 * to 'z', in either case
+	 * 
+	 * @param line The line to be checked
+	 * @return True if line can be stored in a dictionary, else false
+	 */
+	private static boolean isLetters(String line) {
+		for (int i = 0; i < line.length(); i++) {
+			if (Trie.letterIndex(line.charAt(i)) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Starts loading every word in the dictionary in the background, unless
+	 * it is already loading or loaded. Calling this at startup lets the
+	 * dictionary load while the rest of the program starts.
+	 * 
+	 * @return A future that completes with the shared dictionary
+	 */
+	public static synchronized CompletableFuture<Dictionary> loadSharedDictionary() {
+		if (sharedDictionary == null) {
+			sharedDictionary = CompletableFuture.supplyAsync(() -> parseDictionary(0));
+		}
+		return sharedDictionary;
+	}
+	
+	/**
+	 * Returns the process-wide dictionary, which contains every word in the
+	 * dictionary. Waits for it to finish loading if needed. Every call returns
+	 * the same dictionary, which must not be modified.
+	 * 
+	 * @return The shared dictionary
+	 */
+	public static Dictionary getSharedDictionary() {
+		return loadSharedDictionary().join();
 	}
 }
@@ -0,0 +1,350 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Solves a batch of small boards together in a single walk of the
+ * dictionary. Rather than walking the dictionary once per board, the search
+ * visits each dictionary node once for the whole batch, carrying the set of
+ * every path, in any board, that spells the prefix leading to the node.
+ * Each node's data is therefore loaded once and used for every board, and
+ * the upper levels of the dictionary, which every board visits, are walked
+ * only once.
+ *
+ * The boards are first packed into flat arrays, with the neighbors of each
+ * cell stored as a bit mask. A path is represented by a state holding its
+ * board, its last cell, a bit mask of the cells it has visited, and the state
+ * it was extended from, so the cells a path can be extended to are found with
+ * a few bitwise operations. The
+ * states of the paths at each node are kept contiguous in a stack-like
+ * arena, grouped by the letter that extends them, so the search allocates
+ * nothing but the solutions it finds once the arena has grown to fit. A path
+ * that has entered a tile of several letters, such as "Qu", without yet
+ * matching all of them must match the next letter of the tile without
+ * moving; its state stores the complement of its cell, and the number of the
+ * tile's letters matched so far. Each board may have its own alphabet.
+ *
+ * Every board must have at most 64 spaces, so that a state's visited cells
+ * fit in one long.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class LockstepSearch {
+	/**
+	 * Largest number of spaces a board solved by this search may have
+	 */
+	static final int MAX_CELLS = 64;
+	private static final int INITIAL_STATES = 1024;
+
+	private final Dictionary dictionary;
+	private final BoggleBoard[] boards;
+	private final int minLength;
+	private final int maxLength;
+	private final boolean uniqueWords;
+	/**
+	 * Copies of the boards packed into flat arrays, MAX_CELLS entries per
+	 * board: the first letter and the letters of the tile of each cell, and a
+	 * bit mask of the cells adjacent to each cell. Also a bit mask of every
+	 * cell of each board
+	 */
+	private final byte[] cellLetters;
+	private final byte[][] cellSpellings;
+	private final long[] cellNeighbors;
+	private final long[] boardCells;
+
+	/**
+	 * Board, last cell, visited cells, previous state and letters of the last
+	 * cell's tile matched of every state in the arena. The cell of a state
+	 * that must match more of its tile's letters is stored as the complement
+	 * of its cell id
+	 */
+	private int[] stateBoards;
+	private int[] stateCells;
+	private long[] stateVisited;
+	private int[] stateParents;
+	private byte[] stateMatched;
+	/**
+	 * Number of states in the arena
+	 */
+	private int size;
+	/**
+	 * Child node of the node at each depth for each letter, and the number of
+	 * states extended by each letter
+	 */
+	private int[][] children;
+	private int[][] counts;
+	/**
+	 * Letters of the prefix leading to the current node
+	 */
+	private char[] letters;
+	/**
+	 * Solutions found in each board, or null where there are none
+	 */
+	private final List<List<BogglePath>> found;
+	/**
+	 * For each board, the value of wordStamp when a path spelling the current
+	 * word was last stored in it. Only used for unique words
+	 */
+	private final int[] stored;
+	private int wordStamp;
+
+	/**
+	 * Creates a search of the given boards
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param boards The boards in which to search for words, each with at most
+	 *        MAX_CELLS spaces
+	 * @param mode Which of the paths found to store in the boards
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store
+	 */
+	LockstepSearch(Dictionary dictionary, List<BoggleBoard> boards, SolveMode mode,
+			int minLength, int maxLength) {
+		this.dictionary = dictionary;
+		this.boards = boards.toArray(new BoggleBoard[boards.size()]);
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.uniqueWords = mode == SolveMode.UNIQUE_WORDS;
+		stateBoards = new int[INITIAL_STATES];
+		stateCells = new int[INITIAL_STATES];
+		stateVisited = new long[INITIAL_STATES];
+		stateParents = new int[INITIAL_STATES];
+		stateMatched = new byte[INITIAL_STATES];
+		children = new int[0][];
+		counts = new int[0][];
+		letters = new char[16];
+		found = new ArrayList<List<BogglePath>>(Collections.nCopies(this.boards.length,
+				(List<BogglePath>) null));
+		stored = new int[this.boards.length];
+		cellLetters = new byte[this.boards.length * MAX_CELLS];
+		cellSpellings = new byte[this.boards.length * MAX_CELLS][];
+		cellNeighbors = new long[this.boards.length * MAX_CELLS];
+		boardCells = new long[this.boards.length];
+		for (int board = 0; board < this.boards.length; board++) {
+			BoggleBoard spaces = this.boards[board];
+			for (int cell = 0; cell < spaces.tiles.length; cell++) {
+				byte[] spelling = spaces.alphabet.getLetters(spaces.tiles[cell]);
+				cellLetters[board * MAX_CELLS + cell] = spelling[0];
+				cellSpellings[board * MAX_CELLS + cell] = spelling;
+				for (int i = spaces.adjacencyStarts[cell]; i < spaces.adjacencyStarts[cell + 1]; i++) {
+					cellNeighbors[board * MAX_CELLS + cell] |= 1L << spaces.adjacency[i];
+				}
+				boardCells[board] |= 1L << cell;
+			}
+		}
+	}
+
+	/**
+	 * Finds every word in every board and stores them in their boards
+	 */
+	void solve() {
+		// The empty prefix is reached by one state per board that has not
+		// visited any cell. Its cell is never read
+		for (int board = 0; board < boards.length; board++) {
+			addState(board, 0, 0L, -1, 0);
+		}
+		search(dictionary.getRoot(), 0, size, 0);
+		size = 0;
+		for (int board = 0; board < boards.length; board++) {
+			if (found.get(board) != null) {
+				boards[board].addSolutions(found.get(board));
+			}
+		}
+	}
+
+	/**
+	 * Stores the words spelled by the given states and searches every child
+	 * of the given node that any of them can be extended to
+	 *
+	 * @param node The node reached by every state given
+	 * @param lo Index of the first state reaching node
+	 * @param hi One more than the index of the last state reaching node
+	 * @param depth Number of letters leading to node
+	 */
+	private void search(int node, int lo, int hi, int depth) {
+		boolean root = depth == 0;
+		if (!root && dictionary.isWord(node) && depth >= minLength) {
+			storeWords(lo, hi, depth);
+		}
+		if (depth == maxLength) {
+			return;
+		}
+		if (depth == children.length) {
+			children = Arrays.copyOf(children, depth * 2 + 1);
+			counts = Arrays.copyOf(counts, depth * 2 + 1);
+		}
+		if (children[depth] == null) {
+			children[depth] = new int[Dictionary.ALPHABET_SIZE];
+			counts[depth] = new int[Dictionary.ALPHABET_SIZE + 1];
+		}
+		int[] next = children[depth];
+		int[] count = counts[depth];
+		for (int letter = 0; letter < Dictionary.ALPHABET_SIZE; letter++) {
+			next[letter] = dictionary.getChild(node, letter);
+		}
+
+		// Count the states each letter extends, then lay them out grouped by
+		// letter at the top of the arena
+		Arrays.fill(count, 0);
+		for (int state = lo; state < hi; state++) {
+			int cell = stateCells[state];
+			int board = stateBoards[state];
+			if (cell < 0) {
+				int letter = cellSpellings[board * MAX_CELLS + ~cell][stateMatched[state]];
+				if (next[letter] != Dictionary.NO_NODE) {
+					count[letter + 1]++;
+				}
+				continue;
+			}
+			long candidates = (root ? boardCells[board] : cellNeighbors[board * MAX_CELLS + cell])
+					& ~stateVisited[state];
+			while (candidates != 0) {
+				int nextCell = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				int letter = cellLetters[board * MAX_CELLS + nextCell];
+				if (next[letter] != Dictionary.NO_NODE) {
+					count[letter + 1]++;
+				}
+			}
+		}
+		int base = size;
+		for (int letter = 0; letter < Dictionary.ALPHABET_SIZE; letter++) {
+			count[letter + 1] += count[letter];
+		}
+		ensureCapacity(base + count[Dictionary.ALPHABET_SIZE]);
+		for (int state = lo; state < hi; state++) {
+			int cell = stateCells[state];
+			int board = stateBoards[state];
+			long visited = stateVisited[state];
+			if (cell < 0) {
+				byte[] spelling = cellSpellings[board * MAX_CELLS + ~cell];
+				int matched = stateMatched[state] + 1;
+				int letter = spelling[matched - 1];
+				if (next[letter] != Dictionary.NO_NODE) {
+					setState(base + count[letter]++, board,
+							matched == spelling.length ? ~cell : cell, visited, state, matched);
+				}
+				continue;
+			}
+			long candidates = (root ? boardCells[board] : cellNeighbors[board * MAX_CELLS + cell])
+					& ~visited;
+			while (candidates != 0) {
+				int nextCell = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				int letter = cellLetters[board * MAX_CELLS + nextCell];
+				if (next[letter] != Dictionary.NO_NODE) {
+					setState(base + count[letter]++, board,
+							cellSpellings[board * MAX_CELLS + nextCell].length == 1 ? nextCell
+									: ~nextCell,
+							visited | (1L << nextCell), state, 1);
+				}
+			}
+		}
+		// Each count is now the end of its letter's group
+		size = base + count[Dictionary.ALPHABET_SIZE];
+
+		if (depth + 1 > letters.length) {
+			letters = Arrays.copyOf(letters, letters.length * 2);
+		}
+		int groupStart = base;
+		for (int letter = 0; letter < Dictionary.ALPHABET_SIZE; letter++) {
+			int groupEnd = base + count[letter];
+			if (groupEnd > groupStart) {
+				letters[depth] = (char) ('a' + letter);
+				search(next[letter], groupStart, groupEnd, depth + 1);
+			}
+			groupStart = groupEnd;
+		}
+		size = base;
+	}
+
+	/**
+	 * Stores the paths of the given states, which spell a word, in their
+	 * boards
+	 *
+	 * @param lo Index of the first state
+	 * @param hi One more than the index of the last state
+	 * @param depth Number of letters in the word
+	 */
+	private void storeWords(int lo, int hi, int depth) {
+		String word = null;
+		wordStamp++;
+		for (int state = lo; state < hi; state++) {
+			if (stateCells[state] < 0) {
+				continue;
+			}
+			int board = stateBoards[state];
+			if (uniqueWords) {
+				if (stored[board] == wordStamp) {
+					continue;
+				}
+				stored[board] = wordStamp;
+			}
+			if (word == null) {
+				word = new String(letters, 0, depth);
+			}
+			if (found.get(board) == null) {
+				found.set(board, new ArrayList<BogglePath>());
+			}
+			int[] path = getPath(state);
+			found.get(board).add(boards[board].createPath(path, path.length, word));
+		}
+	}
+
+	/**
+	 * Returns the cells of the path of the given state, in order
+	 *
+	 * @param state A state that has matched every letter of its tile
+	 * @return The cell ids of the path
+	 */
+	private int[] getPath(int state) {
+		int[] path = new int[Long.bitCount(stateVisited[state])];
+		int i = path.length;
+		// Walk back to the root state, skipping the states that matched only
+		// part of a tile
+		while (stateParents[state] >= 0) {
+			if (stateCells[state] >= 0) {
+				path[--i] = stateCells[state];
+			}
+			state = stateParents[state];
+		}
+		return path;
+	}
+
+	/**
+	 * Adds a state to the top of the arena
+	 */
+	private void addState(int board, int cell, long visited, int parent, int matched) {
+		ensureCapacity(size + 1);
+		setState(size++, board, cell, visited, parent, matched);
+	}
+
+	/**
+	 * Sets every field of the state at the given index of the arena
+	 */
+	private void setState(int state, int board, int cell, long visited, int parent,
+			int matched) {
+		stateBoards[state] = board;
+		stateCells[state] = cell;
+		stateVisited[state] = visited;
+		stateParents[state] = parent;
+		stateMatched[state] = (byte) matched;
+	}
+
+	/**
+	 * Grows the arena to hold at least the given number of states
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > stateBoards.length) {
+			int length = Math.max(capacity, stateBoards.length * 2);
+			stateBoards = Arrays.copyOf(stateBoards, length);
+			stateCells = Arrays.copyOf(stateCells, length);
+			stateVisited = Arrays.copyOf(stateVisited, length);
+			stateParents = Arrays.copyOf(stateParents, length);
+			stateMatched = Arrays.copyOf(stateMatched, length);
+		}
+	}
+}
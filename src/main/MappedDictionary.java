@@ -0,0 +1,221 @@
+package main;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A dictionary that is queried in place from a precompiled binary image,
+ * mapped into memory with FileChannel.map. Opening an image reads nothing but
+ * its header: nodes are looked up directly in the mapped pages, so no trie is
+ * built on the heap, and JVMs on the same host that map the same image share
+ * its pages through the operating system's file cache.
+ *
+ * The image uses the same layout as Trie, packed with no spare room. It is a
+ * sequence of little-endian ints: a header of MAGIC, VERSION, flags, the
+ * number of nodes and the number of edges, followed by the mask, child block offset,
+ * subtree word count, required letters, repeated letters and longest suffix
+ * length of every node, and finally the edge pool. Images are
+ * written from any Dictionary by write(), including a Dawg.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class MappedDictionary implements Dictionary {
+	/**
+	 * First int of every image, "BGDT" in ASCII
+	 */
+	private static final int MAGIC = 0x42474454;
+	/**
+	 * Version of the image layout written by this class
+	 */
+	private static final int VERSION = 4;
+	private static final int HEADER_INTS = 5;
+	/**
+	 * Bit of the header's flags that is set iff nodes identify prefixes
+	 */
+	private static final int PREFIX_NODES_FLAG = 1;
+	private static final int WORD_FLAG = 1 << 31;
+
+	/**
+	 * Number of nodes in this dictionary
+	 */
+	private final int nodeCount;
+	/**
+	 * True iff the nodes of this dictionary identify prefixes
+	 */
+	private final boolean prefixNodes;
+	/**
+	 * Views of the sections of the mapped image
+	 */
+	private final IntBuffer masks;
+	private final IntBuffer bases;
+	private final IntBuffer wordCounts;
+	private final IntBuffer requiredLetters;
+	private final IntBuffer repeatedLetters;
+	private final IntBuffer suffixLengths;
+	private final IntBuffer edges;
+
+	/**
+	 * Maps the image stored in the given file
+	 *
+	 * @param filename Path to an image written by write()
+	 * @throws IOException if the file cannot be read or is not a valid image
+	 */
+	public MappedDictionary(String filename) throws IOException {
+		MappedByteBuffer buffer;
+		try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+					file.length());
+		}
+		IntBuffer image = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		if (image.limit() < HEADER_INTS || image.get(0) != MAGIC) {
+			throw new IOException(filename + " is not a dictionary image");
+		}
+		if (image.get(1) != VERSION) {
+			throw new IOException(filename + " has unsupported image version "
+					+ image.get(1));
+		}
+		prefixNodes = (image.get(2) & PREFIX_NODES_FLAG) != 0;
+		nodeCount = image.get(3);
+		int edgeCount = image.get(4);
+		if (image.limit() != HEADER_INTS + 6L * nodeCount + edgeCount) {
+			throw new IOException(filename + " is truncated");
+		}
+		masks = section(image, HEADER_INTS, nodeCount);
+		bases = section(image, HEADER_INTS + nodeCount, nodeCount);
+		wordCounts = section(image, HEADER_INTS + 2 * nodeCount, nodeCount);
+		requiredLetters = section(image, HEADER_INTS + 3 * nodeCount, nodeCount);
+		repeatedLetters = section(image, HEADER_INTS + 4 * nodeCount, nodeCount);
+		suffixLengths = section(image, HEADER_INTS + 5 * nodeCount, nodeCount);
+		edges = section(image, HEADER_INTS + 6 * nodeCount, edgeCount);
+	}
+
+	@Override
+	public int getRoot() {
+		return 0;
+	}
+
+	@Override
+	public int getChild(int node, int letter) {
+		int mask = masks.get(node);
+		int bit = 1 << letter;
+		if ((mask & bit) == 0) {
+			return NO_NODE;
+		}
+		return edges.get(bases.get(node) + Integer.bitCount(mask & (bit - 1)));
+	}
+
+	@Override
+	public boolean isWord(int node) {
+		return (masks.get(node) & WORD_FLAG) != 0;
+	}
+
+	@Override
+	public int getWordCount(int node) {
+		return wordCounts.get(node);
+	}
+
+	@Override
+	public int getMaxWordLength() {
+		return getMaxSuffixLength(getRoot());
+	}
+
+	@Override
+	public int getMaxSuffixLength(int node) {
+		return suffixLengths.get(node);
+	}
+
+	@Override
+	public int getRequiredLetters(int node) {
+		return requiredLetters.get(node);
+	}
+
+	@Override
+	public int getRepeatedLetters(int node) {
+		return repeatedLetters.get(node);
+	}
+
+	@Override
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	@Override
+	public boolean hasPrefixNodes() {
+		return prefixNodes;
+	}
+
+	/**
+	 * Writes an image of the given dictionary to the given file, replacing
+	 * the file if it exists
+	 *
+	 * @param dictionary The dictionary to be written
+	 * @param filename Path to the image to be written
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Dictionary dictionary, String filename) throws IOException {
+		int nodeCount = dictionary.getNodeCount();
+		int[] masks = new int[nodeCount];
+		int edgeCount = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				if (dictionary.getChild(node, letter) != NO_NODE) {
+					masks[node] |= 1 << letter;
+					edgeCount++;
+				}
+			}
+			if (dictionary.isWord(node)) {
+				masks[node] |= WORD_FLAG;
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(
+				4 * (HEADER_INTS + 6 * nodeCount + edgeCount));
+		IntBuffer image = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		image.put(MAGIC).put(VERSION);
+		image.put(dictionary.hasPrefixNodes() ? PREFIX_NODES_FLAG : 0);
+		image.put(nodeCount).put(edgeCount);
+		image.put(masks);
+		int base = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			image.put(base);
+			base += Integer.bitCount(masks[node] & ~WORD_FLAG);
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			image.put(dictionary.getWordCount(node));
+		}
+		int[][] suffixLetters = SuffixLetters.compute(dictionary);
+		image.put(suffixLetters[0]);
+		image.put(suffixLetters[1]);
+		image.put(suffixLetters[2]);
+		for (int node = 0; node < nodeCount; node++) {
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				if ((masks[node] & (1 << letter)) != 0) {
+					image.put(dictionary.getChild(node, letter));
+				}
+			}
+		}
+
+		try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+			file.setLength(0);
+			FileChannel channel = file.getChannel();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Returns a view of the given range of ints of an image
+	 */
+	private static IntBuffer section(IntBuffer image, int start, int length) {
+		IntBuffer section = image.duplicate();
+		section.position(start);
+		section.limit(start + length);
+		return section.slice();
+	}
+}
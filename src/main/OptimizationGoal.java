@@ -0,0 +1,18 @@
+package main;
+
+/**
+ * Determines what a BoardOptimizer maximizes.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public enum OptimizationGoal {
+	/**
+	 * Maximize the total score of the distinct words on the board
+	 */
+	TOTAL_SCORE,
+	/**
+	 * Maximize the number of distinct words on the board that score any
+	 * points
+	 */
+	WORD_COUNT
+}
@@ -0,0 +1,85 @@
+package main;
+
+/**
+ * The best board found by a BoardOptimizer, with its score and the rate at
+ * which the optimizer evaluated boards.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class OptimizerResult {
+	/**
+	 * Tiles of the best board found, by row then column
+	 */
+	private final String[][] letters;
+	/**
+	 * Score of the best board found, toward the optimizer's goal
+	 */
+	private final int score;
+	/**
+	 * Number of boards evaluated by every chain together
+	 */
+	private final long evaluations;
+	/**
+	 * Nanoseconds taken by the optimization
+	 */
+	private final long elapsedNanos;
+	
+	/**
+	 * Creates a result from the given measurements
+	 * 
+	 * @param letters Tiles of the best board found, by row then column
+	 * @param score Score of the best board found
+	 * @param evaluations Number of boards evaluated
+	 * @param elapsedNanos Nanoseconds taken by the optimization
+	 */
+	OptimizerResult(String[][] letters, int score, long evaluations, long elapsedNanos) {
+		this.letters = letters;
+		this.score = score;
+		this.evaluations = evaluations;
+		this.elapsedNanos = elapsedNanos;
+	}
+	
+	/**
+	 * Returns a new, unsolved board holding the best tiles found
+	 * 
+	 * @return The best board found
+	 */
+	public BoggleBoard getBoard() {
+		return new BoggleBoard(letters);
+	}
+	
+	/**
+	 * Returns the score of the best board found: its total score or its
+	 * number of words, depending on the optimizer's goal
+	 * 
+	 * @return The score of the best board found
+	 */
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * Returns the number of boards evaluated by every chain together
+	 * 
+	 * @return The number of boards evaluated
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+	
+	/**
+	 * Returns the average number of boards evaluated per second, over every
+	 * chain together
+	 * 
+	 * @return Boards evaluated per second
+	 */
+	public double getEvaluationsPerSecond() {
+		return elapsedNanos == 0 ? 0 : evaluations * 1e9 / elapsedNanos;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("score %d, %d evaluations, %.1f evaluations/sec", score,
+				evaluations, getEvaluationsPerSecond());
+	}
+}
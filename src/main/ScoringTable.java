@@ -0,0 +1,81 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Gives the number of points a word scores for its length. The points of
+ * each length up to some longest length are listed; every word at least that
+ * long scores the points of the longest length. Lengths count letters, so a
+ * "Qu" tile adds two.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public final class ScoringTable {
+	/**
+	 * The standard Boggle scores: none below 3 letters, 1 point for 3 or 4
+	 * letters, 2 for 5, 3 for 6, 5 for 7 and 11 for 8 or more
+	 */
+	public static final ScoringTable STANDARD = new ScoringTable(0, 0, 0, 1, 1, 2, 3, 5, 11);
+
+	/**
+	 * Points of each length, the last applying to every longer word as well
+	 */
+	private final int[] points;
+
+	/**
+	 * Creates a table scoring words of length i with points[i] points, and
+	 * words longer than the table with its last entry
+	 *
+	 * @param points Points of each length, starting from 0
+	 * @throws IllegalArgumentException if no points are given, or any are
+	 *         negative
+	 */
+	public ScoringTable(int... points) {
+		if (points.length == 0) {
+			throw new IllegalArgumentException("A scoring table must give the points of at"
+					+ " least one length");
+		}
+		for (int p : points) {
+			if (p < 0) {
+				throw new IllegalArgumentException("Points may not be negative");
+			}
+		}
+		this.points = Arrays.copyOf(points, points.length);
+	}
+
+	/**
+	 * Returns the number of points a word of the given length scores
+	 *
+	 * @param length Number of letters in the word
+	 * @return The points the word scores
+	 */
+	public int getPoints(int length) {
+		return points[Math.min(length, points.length - 1)];
+	}
+
+	/**
+	 * Returns the most points any word with a length in the given range
+	 * scores
+	 *
+	 * @param minLength Least number of letters in the word
+	 * @param maxLength Greatest number of letters in the word
+	 * @return The most points a word in the range scores, or -1 if the range
+	 *         is empty
+	 */
+	int getMaxPoints(int minLength, int maxLength) {
+		if (minLength > maxLength) {
+			return -1;
+		}
+		int last = points.length - 1;
+		int max = 0;
+		for (int length = Math.min(minLength, last); length <= Math.min(maxLength, last); length++) {
+			max = Math.max(max, points[length]);
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(points);
+	}
+}
@@ -0,0 +1,106 @@
+package main;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the solutions of one solve to a single subscriber as they are
+ * found. The solve starts when the subscriber subscribes. Solutions are
+ * passed through a bounded buffer: when the subscriber has not requested
+ * enough of them, the threads of the solve wait for it, so a solve never
+ * holds more than a buffer's worth of solutions that have not been consumed.
+ * The subscriber is completed when the solve finishes, and if it cancels its
+ * subscription, the rest of the solve is skipped.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class SolutionPublisher implements Flow.Publisher<BogglePath>, SolutionSink {
+	/**
+	 * Buffers solutions and delivers them to the subscriber
+	 */
+	private final SubmissionPublisher<BogglePath> output;
+	/**
+	 * Pool the solve runs in
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Set once a subscriber has subscribed
+	 */
+	private final AtomicBoolean subscribed;
+	/**
+	 * Task that performs the solve
+	 */
+	private ForkJoinTask<?> solve;
+
+	/**
+	 * Creates a publisher whose solve will run in the given pool
+	 *
+	 * @param pool Pool the solve will run in
+	 */
+	SolutionPublisher(ForkJoinPool pool) {
+		this.output = new SubmissionPublisher<BogglePath>();
+		this.pool = pool;
+		this.subscribed = new AtomicBoolean();
+	}
+
+	/**
+	 * Sets the task that performs the solve, whose solutions must be handed
+	 * to this publisher. Must be called before this publisher is returned to
+	 * a subscriber.
+	 *
+	 * @param solve The task that performs the solve
+	 */
+	void setSolve(ForkJoinTask<?> solve) {
+		this.solve = solve;
+	}
+
+	/**
+	 * Subscribes the given subscriber to the solutions and starts the solve.
+	 * Only one subscriber is accepted; any later one is sent an
+	 * IllegalStateException.
+	 *
+	 * @param subscriber Receives the solutions
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super BogglePath> subscriber) {
+		if (!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("Solutions can only "
+					+ "be published to one subscriber"));
+			return;
+		}
+		output.subscribe(subscriber);
+		pool.execute(() -> {
+			try {
+				solve.invoke();
+				output.close();
+			} catch (RuntimeException | Error e) {
+				output.closeExceptionally(e);
+			}
+		});
+	}
+
+	@Override
+	public void accept(List<BogglePath> batch) {
+		for (BogglePath solution : batch) {
+			output.submit(solution);
+		}
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return output.getNumberOfSubscribers() == 0;
+	}
+}
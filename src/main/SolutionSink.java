@@ -0,0 +1,28 @@
+package main;
+
+import java.util.List;
+
+/**
+ * Receives the solutions of a solve as they are found, in place of the
+ * solved board's own store. Batches may be handed over by many threads at
+ * once.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+interface SolutionSink {
+	/**
+	 * Receives a batch of solutions. The sink takes ownership of the batch,
+	 * which is not modified afterwards.
+	 *
+	 * @param batch Solutions found by one search
+	 */
+	void accept(List<BogglePath> batch);
+
+	/**
+	 * Returns true iff no more solutions are wanted, so that the rest of the
+	 * solve may be skipped
+	 *
+	 * @return True if the solve should stop, else false
+	 */
+	boolean isCancelled();
+}
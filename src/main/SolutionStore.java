@@ -0,0 +1,410 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Stores the solutions of a BoggleBoard. Solvers collect solutions locally
+ * and hand them to the store in batches, which only appends the batch to a
+ * lock-free queue. Batches are merged, dropping duplicate paths, the next
+ * time the solutions are read. Solvers therefore never wait on each other or
+ * on readers.
+ *
+ * Merged solutions are packed rather than kept as BogglePaths. Each is a
+ * record of its first cell, its word, interned so that each distinct word is
+ * held once, and the offset of its steps in one byte array shared by every
+ * record, one byte per step. Hash codes are computed from the steps when
+ * needed rather than stored. Duplicates are found through an open
+ * addressing hash table of record numbers. The solutions read from the store
+ * are BogglePaths viewing its arrays, which are only ever appended to or
+ * replaced, never modified in place, so the views stay valid however the
+ * store changes afterwards.
+ *
+ * Once solutions are first removed, the store also indexes its solutions by
+ * the cells their paths pass through, so that later removals only touch the
+ * solutions they remove. Records are only removed from the index of the cell
+ * they are removed through; the other cells keep them until the index is
+ * next rebuilt, and skip them meanwhile. Rebuilding the index also drops the
+ * removed records from the store.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class SolutionStore {
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * The board whose solutions are stored
+	 */
+	private final BoggleBoard board;
+	/**
+	 * Batches of solutions that have not yet been merged
+	 */
+	private final Queue<Collection<BogglePath>> pending;
+	/**
+	 * Everything below is only accessed while holding this store's lock,
+	 * which solvers never take.
+	 *
+	 * Steps of every record, end to end, and the number of bytes used
+	 */
+	private byte[] steps;
+	private int stepCount;
+	/**
+	 * For each record, in the order merged: its first cell, the offset of its
+	 * steps, with one extra entry giving the end of the last record's steps,
+	 * and the id of its word, or -1 once removed
+	 */
+	private int[] starts;
+	private int[] offsets;
+	private int[] wordIds;
+	private int recordCount;
+	private int liveCount;
+	/**
+	 * Open addressing hash table of every record not removed, each stored as
+	 * its number plus 1, so that 0 marks an empty slot. Its length is a power
+	 * of two, and it is at most three quarters full
+	 */
+	private int[] table;
+	/**
+	 * Every distinct word stored, by id, and the ids of the words. Also the
+	 * number of records not removed that spell each word
+	 */
+	private final List<String> words;
+	private final Map<String, Integer> wordIdsByWord;
+	private int[] wordPathCounts;
+	/**
+	 * Records whose paths pass through each cell, including records removed
+	 * through another cell, and the number of them, or null until solutions
+	 * are first removed. Also the number of removed records still held by the
+	 * cell index
+	 */
+	private int[][] cellIndex;
+	private int[] cellIndexSizes;
+	private int staleCount;
+
+	/**
+	 * Creates a new store with no solutions
+	 *
+	 * @param board The board whose solutions will be stored
+	 */
+	SolutionStore(BoggleBoard board) {
+		this.board = board;
+		pending = new ConcurrentLinkedQueue<Collection<BogglePath>>();
+		steps = new byte[INITIAL_CAPACITY * 4];
+		starts = new int[INITIAL_CAPACITY];
+		offsets = new int[INITIAL_CAPACITY + 1];
+		wordIds = new int[INITIAL_CAPACITY];
+		table = new int[INITIAL_CAPACITY * 2];
+		words = new ArrayList<String>();
+		wordIdsByWord = new HashMap<String, Integer>();
+		wordPathCounts = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds the given batch of solutions to this store. The store takes
+	 * ownership of the batch, which must not be modified afterwards.
+	 *
+	 * @param batch Solutions to be added, possibly including duplicates
+	 */
+	void addAll(Collection<BogglePath> batch) {
+		pending.add(batch);
+	}
+
+	/**
+	 * Returns every distinct solution added to this store so far
+	 *
+	 * @return A new list of the solutions in this store
+	 */
+	synchronized List<BogglePath> getSolutions() {
+		merge();
+		List<BogglePath> solutions = new ArrayList<BogglePath>(liveCount);
+		for (int record = 0; record < recordCount; record++) {
+			if (wordIds[record] >= 0) {
+				solutions.add(view(record));
+			}
+		}
+		return solutions;
+	}
+
+	/**
+	 * Removes every solution whose path passes through the given cell
+	 *
+	 * @param cell Id of the cell
+	 * @return The solutions removed
+	 */
+	synchronized List<BogglePath> removeThrough(int cell) {
+		merge();
+		if (cellIndex == null || staleCount > liveCount) {
+			buildIndex();
+		}
+		List<BogglePath> removed = new ArrayList<BogglePath>();
+		int[] through = cellIndex[cell];
+		for (int i = 0; i < cellIndexSizes[cell]; i++) {
+			int record = through[i];
+			if (wordIds[record] >= 0) {
+				removed.add(view(record));
+				unlink(record);
+				wordPathCounts[wordIds[record]]--;
+				wordIds[record] = -1;
+				liveCount--;
+				staleCount += lengthOf(record) - 1;
+			} else {
+				staleCount--;
+			}
+		}
+		cellIndex[cell] = null;
+		cellIndexSizes[cell] = 0;
+		return removed;
+	}
+
+	/**
+	 * Returns true iff some solution in this store spells the given word.
+	 * Only available once solutions have been removed from this store.
+	 *
+	 * @param word The word to be checked
+	 * @return True if a solution spells word, else false
+	 * @throws IllegalStateException if no solutions have been removed yet
+	 */
+	synchronized boolean containsWord(String word) {
+		if (cellIndex == null) {
+			throw new IllegalStateException("Words are not indexed until "
+					+ "solutions are removed");
+		}
+		merge();
+		Integer id = wordIdsByWord.get(word);
+		return id != null && wordPathCounts[id] > 0;
+	}
+
+	/**
+	 * Moves every pending batch into the records, indexing the new ones if
+	 * the index has been built. Must be called while holding this store's
+	 * lock.
+	 */
+	private void merge() {
+		Collection<BogglePath> batch;
+		while ((batch = pending.poll()) != null) {
+			for (BogglePath path : batch) {
+				int hash = path.hashCode();
+				int mask = table.length - 1;
+				int slot = slotOf(hash);
+				while (table[slot] != 0 && !matches(table[slot] - 1, path)) {
+					slot = (slot + 1) & mask;
+				}
+				if (table[slot] != 0) {
+					continue;
+				}
+				int record = append(path);
+				table[slot] = record + 1;
+				if ((liveCount + 1) * 4L > table.length * 3L) {
+					rehash(table.length * 2);
+				}
+				liveCount++;
+				if (cellIndex != null) {
+					index(record);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Appends a record of the given path. Must be called while holding this
+	 * store's lock.
+	 *
+	 * @return The number of the new record
+	 */
+	private int append(BogglePath path) {
+		if (recordCount == starts.length) {
+			int capacity = recordCount + (recordCount >> 1);
+			starts = Arrays.copyOf(starts, capacity);
+			offsets = Arrays.copyOf(offsets, capacity + 1);
+			wordIds = Arrays.copyOf(wordIds, capacity);
+		}
+		int stepLength = path.getLength() - 1;
+		if (stepCount + stepLength > steps.length) {
+			steps = Arrays.copyOf(steps,
+					Math.max(steps.length + (steps.length >> 1), stepCount + stepLength));
+		}
+		path.copySteps(steps, stepCount);
+		stepCount += stepLength;
+		int record = recordCount++;
+		starts[record] = path.getStart();
+		offsets[record + 1] = stepCount;
+		wordIds[record] = idOf(path.getWord());
+		wordPathCounts[wordIds[record]]++;
+		return record;
+	}
+
+	/**
+	 * Returns the id of the given word, giving it one if it has none. Must be
+	 * called while holding this store's lock.
+	 */
+	private int idOf(String word) {
+		Integer id = wordIdsByWord.get(word);
+		if (id != null) {
+			return id;
+		}
+		id = words.size();
+		words.add(word);
+		wordIdsByWord.put(word, id);
+		if (id == wordPathCounts.length) {
+			wordPathCounts = Arrays.copyOf(wordPathCounts, id * 2);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns true iff the given record follows the same path as the given
+	 * path
+	 */
+	private boolean matches(int record, BogglePath path) {
+		return path.hasSteps(starts[record], steps, offsets[record], lengthOf(record));
+	}
+
+	/**
+	 * Removes the given record from the hash table, shifting back the
+	 * records after it that could no longer be found otherwise. Must be
+	 * called while holding this store's lock.
+	 */
+	private void unlink(int record) {
+		int mask = table.length - 1;
+		int hole = slotOf(hashOf(record));
+		while (table[hole] != record + 1) {
+			hole = (hole + 1) & mask;
+		}
+		for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+			int home = slotOf(hashOf(table[next] - 1));
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				table[hole] = table[next];
+				hole = next;
+			}
+		}
+		table[hole] = 0;
+	}
+
+	/**
+	 * Replaces the hash table by one of the given length holding every
+	 * record not removed. Must be called while holding this store's lock.
+	 */
+	private void rehash(int length) {
+		table = new int[length];
+		int mask = length - 1;
+		for (int record = 0; record < recordCount; record++) {
+			if (wordIds[record] >= 0) {
+				int slot = slotOf(hashOf(record));
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = record + 1;
+			}
+		}
+	}
+
+	/**
+	 * Drops every removed record, then indexes every record from scratch.
+	 * Must be called while holding this store's lock.
+	 */
+	private void buildIndex() {
+		if (liveCount < recordCount) {
+			compact();
+		}
+		int cellCount = board.getWidth() * board.getHeight();
+		cellIndex = new int[cellCount][];
+		cellIndexSizes = new int[cellCount];
+		staleCount = 0;
+		for (int record = 0; record < recordCount; record++) {
+			index(record);
+		}
+	}
+
+	/**
+	 * Copies every record not removed into new arrays, in the same order.
+	 * Views of the old arrays are unaffected. Must be called while holding
+	 * this store's lock.
+	 */
+	private void compact() {
+		byte[] liveSteps = new byte[Math.max(stepCount, 1)];
+		int liveStepCount = 0;
+		int[] liveStarts = new int[Math.max(liveCount, INITIAL_CAPACITY)];
+		int[] liveOffsets = new int[liveStarts.length + 1];
+		int[] liveWordIds = new int[liveStarts.length];
+		int live = 0;
+		for (int record = 0; record < recordCount; record++) {
+			if (wordIds[record] < 0) {
+				continue;
+			}
+			int stepLength = lengthOf(record) - 1;
+			System.arraycopy(steps, offsets[record], liveSteps, liveStepCount, stepLength);
+			liveStepCount += stepLength;
+			liveStarts[live] = starts[record];
+			liveOffsets[live + 1] = liveStepCount;
+			liveWordIds[live] = wordIds[record];
+			live++;
+		}
+		steps = liveSteps;
+		stepCount = liveStepCount;
+		starts = liveStarts;
+		offsets = liveOffsets;
+		wordIds = liveWordIds;
+		recordCount = live;
+		rehash(table.length);
+	}
+
+	/**
+	 * Adds the given record to the index of every cell its path passes
+	 * through. Must be called while holding this store's lock.
+	 */
+	private void index(int record) {
+		int width = board.getWidth();
+		int cell = starts[record];
+		int end = offsets[record + 1];
+		for (int i = offsets[record]; ; i++) {
+			int[] through = cellIndex[cell];
+			if (through == null) {
+				through = cellIndex[cell] = new int[4];
+			} else if (cellIndexSizes[cell] == through.length) {
+				through = cellIndex[cell] = Arrays.copyOf(through, through.length * 2);
+			}
+			through[cellIndexSizes[cell]++] = record;
+			if (i == end) {
+				break;
+			}
+			cell = BogglePath.nextCell(cell, steps[i], width);
+		}
+	}
+
+	/**
+	 * Returns a path viewing the given record
+	 */
+	private BogglePath view(int record) {
+		return new BogglePath(board, starts[record], steps, offsets[record], lengthOf(record),
+				words.get(wordIds[record]), hashOf(record));
+	}
+
+	/**
+	 * Returns the hash code of the path of the given record
+	 */
+	private int hashOf(int record) {
+		return BogglePath.hashOf(board, starts[record], steps, offsets[record],
+				offsets[record + 1] - offsets[record]);
+	}
+
+	/**
+	 * Returns the number of cells in the path of the given record
+	 */
+	private int lengthOf(int record) {
+		return offsets[record + 1] - offsets[record] + 1;
+	}
+
+	/**
+	 * Returns the slot of the hash table a record with the given hash code is
+	 * first looked for in
+	 */
+	private int slotOf(int hash) {
+		return (hash ^ (hash >>> 16)) & (table.length - 1);
+	}
+}
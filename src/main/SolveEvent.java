@@ -0,0 +1,38 @@
+package main;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one solve of a board, lasting from the start of
+ * the solve to its end. Recorded by SolveStatistics.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+@Name("main.Solve")
+@Label("Boggle Solve")
+@Category("BoggleBot")
+@Description("A solve of one board; counts are 0 unless bogglebot.statistics is set")
+class SolveEvent extends jdk.jfr.Event {
+	@Label("Strategy")
+	String strategy;
+
+	@Label("Width")
+	int width;
+
+	@Label("Height")
+	int height;
+
+	@Label("Solutions")
+	long solutions;
+
+	@Label("Nodes Expanded")
+	long nodesExpanded;
+
+	@Label("Enqueue Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long enqueueNanos;
+}
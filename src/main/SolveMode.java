@@ -0,0 +1,20 @@
+package main;
+
+/**
+ * Determines which solutions a solver stores in a BoggleBoard.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public enum SolveMode {
+	/**
+	 * Store every distinct path through the board that spells a word
+	 */
+	ALL_PATHS,
+	/**
+	 * Store one path for each distinct word on the board. Paths spelling a
+	 * word that has already been found are dropped as soon as they are
+	 * reached, so the number of solutions stored is bounded by the size of
+	 * the dictionary rather than by the number of paths.
+	 */
+	UNIQUE_WORDS
+}
@@ -0,0 +1,121 @@
+package main;
+
+/**
+ * The settings shared by every search that makes up one solve of a board:
+ * the dictionary to search, which solutions to keep, the range of word
+ * lengths to accept, and where to hand the solutions.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class SolveSettings {
+	/**
+	 * Contains a dictionary of which words to search for
+	 */
+	final Dictionary dictionary;
+	/**
+	 * Tracks the words found by the solve, or null if every path is kept
+	 */
+	final WordTracker tracker;
+	/**
+	 * Minimum and maximum number of letters in words to keep, inclusive
+	 */
+	final int minLength;
+	final int maxLength;
+	/**
+	 * Receives the solutions found, or null if they are stored in the board
+	 */
+	final SolutionSink sink;
+	/**
+	 * Collects the counts of the solve's searches, or null if they are not
+	 * collected
+	 */
+	final SolveStatistics statistics;
+
+	/**
+	 * Creates the settings for a new solve
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param mode Which of the paths found to keep
+	 * @param minLength Minimum number of letters in words to keep
+	 * @param maxLength Maximum number of letters in words to keep
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	SolveSettings(Dictionary dictionary, SolveMode mode, int minLength, int maxLength) {
+		this(dictionary, mode, minLength, maxLength, null, null);
+	}
+
+	/**
+	 * Creates the settings for a new solve whose searches add their counts
+	 * to the given statistics
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param mode Which of the paths found to keep
+	 * @param minLength Minimum number of letters in words to keep
+	 * @param maxLength Maximum number of letters in words to keep
+	 * @param statistics Collects the counts of the searches
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	SolveSettings(Dictionary dictionary, SolveMode mode, int minLength, int maxLength,
+			SolveStatistics statistics) {
+		this(dictionary, mode, minLength, maxLength, null, statistics);
+	}
+
+	/**
+	 * Creates the settings for a new solve whose solutions are handed to the
+	 * given sink rather than stored in the board
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param mode Which of the paths found to keep
+	 * @param minLength Minimum number of letters in words to keep
+	 * @param maxLength Maximum number of letters in words to keep
+	 * @param sink Receives the solutions found, or null to store them in the
+	 *        board
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	SolveSettings(Dictionary dictionary, SolveMode mode, int minLength, int maxLength,
+			SolutionSink sink) {
+		this(dictionary, mode, minLength, maxLength, sink, null);
+	}
+
+	/**
+	 * Creates the settings for a new solve
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param mode Which of the paths found to keep
+	 * @param minLength Minimum number of letters in words to keep
+	 * @param maxLength Maximum number of letters in words to keep
+	 * @param sink Receives the solutions found, or null to store them in the
+	 *        board
+	 * @param statistics Collects the counts of the searches, or null
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	SolveSettings(Dictionary dictionary, SolveMode mode, int minLength, int maxLength,
+			SolutionSink sink, SolveStatistics statistics) {
+		checkLengths(minLength, maxLength);
+		this.dictionary = dictionary;
+		this.tracker = mode == SolveMode.UNIQUE_WORDS ? new WordTracker(dictionary) : null;
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.sink = sink;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Checks that the given range of word lengths is valid
+	 *
+	 * @param minLength Minimum number of letters in words to keep
+	 * @param maxLength Maximum number of letters in words to keep
+	 * @throws IllegalArgumentException if minLength is negative or greater
+	 *         than maxLength
+	 */
+	static void checkLengths(int minLength, int maxLength) {
+		if (minLength < 0 || minLength > maxLength) {
+			throw new IllegalArgumentException("Word lengths must satisfy "
+					+ "0 <= minimum length <= maximum length");
+		}
+	}
+}
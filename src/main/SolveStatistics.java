@@ -0,0 +1,275 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where one solve of a board spent its work. Every solve measures its
+ * elapsed time and is reported to JDK Flight Recorder as a SolveEvent. The
+ * search counters are only kept if the system property
+ * "bogglebot.statistics" is "true" when the solver is loaded; otherwise the
+ * code that counts is never run, and every counter reads 0.
+ *
+ * The threads of a parallel solve add their counts to shared striped
+ * counters, once per search rather than once per step, so counting adds
+ * little contention. Counts cover the depth first searches from each space;
+ * a solve that searches word by word only reports its elapsed time.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class SolveStatistics {
+	/**
+	 * True iff search counters are kept, read once from the system property
+	 * "bogglebot.statistics". Being constant, it lets the compiler drop the
+	 * counting code when false
+	 */
+	static final boolean ENABLED = Boolean.getBoolean("bogglebot.statistics");
+
+	/**
+	 * How the board was solved, such as "parallel" or "linear"
+	 */
+	private final String strategy;
+	private final int width;
+	private final int height;
+	/**
+	 * Number of paths searched, including each path started at a space
+	 */
+	private final LongAdder nodesExpanded = new LongAdder();
+	/**
+	 * Extensions of a path that spelled no prefix of a word, that could only
+	 * lead to words needing letters the board lacks, or that could only lead
+	 * to words already found
+	 */
+	private final LongAdder prefixRejections = new LongAdder();
+	private final LongAdder letterRejections = new LongAdder();
+	private final LongAdder exhaustedRejections = new LongAdder();
+	/**
+	 * Number of paths that could not be extended, and the total number of
+	 * spaces on them
+	 */
+	private final LongAdder deadEnds = new LongAdder();
+	private final LongAdder deadEndDepths = new LongAdder();
+	/**
+	 * Nanoseconds spent handing solutions on, by queueing them for the board
+	 * or passing them to the sink. The board merges queued solutions after
+	 * the solve, when they are first read, so merging is not included
+	 */
+	private final LongAdder enqueueNanos = new LongAdder();
+	/**
+	 * Solutions found from each starting space, by cell id, or null if
+	 * counters are not kept
+	 */
+	private final AtomicLongArray solutionsByCell;
+	/**
+	 * System.nanoTime() when the solve started, and its duration once it has
+	 * finished
+	 */
+	private final long started;
+	private volatile long elapsedNanos;
+	private final SolveEvent event;
+
+	/**
+	 * Starts the statistics, and the timing, of a solve of the given board
+	 *
+	 * @param strategy How the board is solved
+	 * @param board The board being solved
+	 */
+	SolveStatistics(String strategy, BoggleBoard board) {
+		this.strategy = strategy;
+		width = board.getWidth();
+		height = board.getHeight();
+		solutionsByCell = ENABLED ? new AtomicLongArray(width * height) : null;
+		event = new SolveEvent();
+		event.begin();
+		started = System.nanoTime();
+	}
+
+	/**
+	 * Adds the counts of one search, started at the given space, to these
+	 * statistics. Only called if counters are kept.
+	 *
+	 * @param start Id of the cell the search started at
+	 * @param expanded Number of paths searched
+	 * @param prefixRejected Extensions that spelled no prefix of a word
+	 * @param letterRejected Extensions needing letters the board lacks
+	 * @param exhaustedRejected Extensions leading only to words found
+	 * @param ends Number of paths that could not be extended
+	 * @param endDepths Total number of spaces on those paths
+	 * @param solutions Number of solutions found
+	 * @param nanos Nanoseconds spent queueing the solutions
+	 */
+	void record(int start, long expanded, long prefixRejected, long letterRejected,
+			long exhaustedRejected, long ends, long endDepths, int solutions, long nanos) {
+		nodesExpanded.add(expanded);
+		prefixRejections.add(prefixRejected);
+		letterRejections.add(letterRejected);
+		exhaustedRejections.add(exhaustedRejected);
+		deadEnds.add(ends);
+		deadEndDepths.add(endDepths);
+		enqueueNanos.add(nanos);
+		if (solutions > 0) {
+			solutionsByCell.addAndGet(start, solutions);
+		}
+	}
+
+	/**
+	 * Ends the timing of the solve and reports it to Flight Recorder
+	 *
+	 * @return These statistics
+	 */
+	SolveStatistics finish() {
+		elapsedNanos = System.nanoTime() - started;
+		event.end();
+		if (event.shouldCommit()) {
+			event.strategy = strategy;
+			event.width = width;
+			event.height = height;
+			event.solutions = getSolutions();
+			event.nodesExpanded = getNodesExpanded();
+			event.enqueueNanos = getEnqueueNanos();
+			event.commit();
+		}
+		return this;
+	}
+
+	/**
+	 * Returns true iff search counters were kept for this solve
+	 *
+	 * @return True if the counters were kept, false if they all read 0
+	 */
+	public boolean isEnabled() {
+		return solutionsByCell != null;
+	}
+
+	/**
+	 * Returns how the board was solved: "parallel", "linear", "tiled" or
+	 * "word-driven"
+	 *
+	 * @return The name of the way the board was solved
+	 */
+	public String getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Returns the time the solve took
+	 *
+	 * @return The duration of the solve in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns the number of paths searched, each of which spells a prefix of
+	 * some word in the dictionary
+	 *
+	 * @return The number of paths searched
+	 */
+	public long getNodesExpanded() {
+		return nodesExpanded.sum();
+	}
+
+	/**
+	 * Returns the number of times a path could not be extended to a
+	 * neighboring space because no word starts with the letters spelled
+	 *
+	 * @return The number of extensions rejected by the dictionary
+	 */
+	public long getPrefixRejections() {
+		return prefixRejections.sum();
+	}
+
+	/**
+	 * Returns the number of times a path was not extended because every word
+	 * it could lead to needs letters the board does not have
+	 *
+	 * @return The number of extensions rejected for the board's letters
+	 */
+	public long getLetterRejections() {
+		return letterRejections.sum();
+	}
+
+	/**
+	 * Returns the number of times a path was not extended because every word
+	 * it could lead to had been found already. Only unique-word solves
+	 * reject paths this way.
+	 *
+	 * @return The number of extensions rejected as already found
+	 */
+	public long getExhaustedRejections() {
+		return exhaustedRejections.sum();
+	}
+
+	/**
+	 * Returns the number of paths searched that could not be extended at all
+	 *
+	 * @return The number of dead ends of the search
+	 */
+	public long getDeadEnds() {
+		return deadEnds.sum();
+	}
+
+	/**
+	 * Returns the average number of spaces on the paths that could not be
+	 * extended
+	 *
+	 * @return The mean depth of the dead ends, or 0 if there were none
+	 */
+	public double getMeanDeadEndDepth() {
+		long ends = deadEnds.sum();
+		return ends == 0 ? 0 : (double) deadEndDepths.sum() / ends;
+	}
+
+	/**
+	 * Returns the time spent queueing solutions for the board, or handing
+	 * them to the solve's subscriber. Queueing never waits on other threads;
+	 * the board merges the queued solutions, under its lock, the first time
+	 * its solutions are read after the solve, and that time is not counted
+	 *
+	 * @return Nanoseconds spent queueing solutions
+	 */
+	public long getEnqueueNanos() {
+		return enqueueNanos.sum();
+	}
+
+	/**
+	 * Returns the number of solutions found
+	 *
+	 * @return The number of solutions found
+	 */
+	public long getSolutions() {
+		if (solutionsByCell == null) {
+			return 0;
+		}
+		long solutions = 0;
+		for (int cell = 0; cell < solutionsByCell.length(); cell++) {
+			solutions += solutionsByCell.get(cell);
+		}
+		return solutions;
+	}
+
+	/**
+	 * Returns the number of solutions found that start at the given space
+	 *
+	 * @param p The starting space
+	 * @return The number of solutions starting at p
+	 * @throws IllegalArgumentException if p is not a space of the board
+	 */
+	public long getSolutions(Point p) {
+		if (p.getX() < 0 || p.getX() >= width || p.getY() < 0 || p.getY() >= height) {
+			throw new IllegalArgumentException("Point is not on the board");
+		}
+		return solutionsByCell == null ? 0 : solutionsByCell.get(p.getY() * width + p.getX());
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s solve of %dx%d in %.3f ms: %d solutions, %d nodes expanded, "
+				+ "%d prefix / %d letter / %d exhausted rejections, %d dead ends at mean depth "
+				+ "%.2f, %.3f ms queueing solutions", strategy, width, height, elapsedNanos / 1e6,
+				getSolutions(), getNodesExpanded(), getPrefixRejections(), getLetterRejections(),
+				getExhaustedRejections(), getDeadEnds(), getMeanDeadEndDepth(),
+				getEnqueueNanos() / 1e6);
+	}
+}
@@ -0,0 +1,107 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Throughput and latency of the solves completed by a BoggleSolverService,
+ * as of the moment the statistics were taken. Latency percentiles are
+ * computed over the most recent solves only.
+ * 
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public class SolverStats {
+	/**
+	 * Number of boards solved
+	 */
+	private final long boardsSolved;
+	/**
+	 * Nanoseconds from the first submission to the last completion
+	 */
+	private final long elapsedNanos;
+	/**
+	 * Latencies of the most recent solves, in nanoseconds, sorted
+	 */
+	private final long[] latencies;
+	
+	/**
+	 * Creates statistics from the given measurements
+	 * 
+	 * @param boardsSolved Number of boards solved
+	 * @param elapsedNanos Nanoseconds from the first submission to the last
+	 *        completion
+	 * @param latencies Latencies of the most recent solves, in nanoseconds,
+	 *        in any order. Sorted in place.
+	 */
+	SolverStats(long boardsSolved, long elapsedNanos, long[] latencies) {
+		this.boardsSolved = boardsSolved;
+		this.elapsedNanos = elapsedNanos;
+		Arrays.sort(latencies);
+		this.latencies = latencies;
+	}
+	
+	/**
+	 * Returns the number of boards solved
+	 * 
+	 * @return the number of boards solved
+	 */
+	public long getBoardsSolved() {
+		return boardsSolved;
+	}
+	
+	/**
+	 * Returns the average number of boards solved per second, from the first
+	 * submission to the last completion
+	 * 
+	 * @return Boards solved per second, or 0 if none have been
+	 */
+	public double getBoardsPerSecond() {
+		return elapsedNanos == 0 ? 0 : boardsSolved * 1e9 / elapsedNanos;
+	}
+	
+	/**
+	 * Returns the median latency of the most recent solves
+	 * 
+	 * @return The median latency in nanoseconds, or 0 if no board has been
+	 *         solved
+	 */
+	public long getP50LatencyNanos() {
+		return getLatencyPercentile(50);
+	}
+	
+	/**
+	 * Returns the 99th percentile latency of the most recent solves
+	 * 
+	 * @return The 99th percentile latency in nanoseconds, or 0 if no board
+	 *         has been solved
+	 */
+	public long getP99LatencyNanos() {
+		return getLatencyPercentile(99);
+	}
+	
+	/**
+	 * Returns the given percentile of the latency of the most recent solves,
+	 * by the nearest rank method
+	 * 
+	 * @param percentile The percentile, from 0 to 100
+	 * @return The latency in nanoseconds, or 0 if no board has been solved
+	 * @throws IllegalArgumentException if percentile is not between 0 and 100
+	 */
+	public long getLatencyPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 "
+					+ "and 100");
+		}
+		if (latencies.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return latencies[Math.max(0, rank - 1)];
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%d boards, %.1f boards/sec, p50 %.3f ms, p99 %.3f ms",
+				boardsSolved, getBoardsPerSecond(), getP50LatencyNanos() / 1e6,
+				getP99LatencyNanos() / 1e6);
+	}
+}
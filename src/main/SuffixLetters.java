@@ -0,0 +1,114 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Computes the letters that every word below each node of a dictionary
+ * needs, and how long its words can be. For each node, the required letters
+ * are those that appear in every suffix completing the node to a word, and
+ * the repeated letters are those that appear at least twice in every such
+ * suffix. A node that ends a word is completed by the empty suffix, so it
+ * requires nothing. The longest suffix length is the number of letters in the
+ * longest suffix completing the node.
+ *
+ * These depend only on the suffixes completing a node, so they are equally
+ * valid for a trie and for a DAWG. See Dictionary.getRequiredLetters() and
+ * Dictionary.getMaxSuffixLength().
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class SuffixLetters {
+	/**
+	 * Mask with the bit of every letter set
+	 */
+	static final int ALL_LETTERS = (1 << Dictionary.ALPHABET_SIZE) - 1;
+
+	/**
+	 * Not instantiable
+	 */
+	private SuffixLetters() {
+	}
+
+	/**
+	 * Computes the required and repeated letters and the longest suffix
+	 * length of every node of the given dictionary, walking it from the root
+	 *
+	 * @param dictionary The dictionary to be walked
+	 * @return Three arrays indexed by node: the required letters and the
+	 *         repeated letters of each node, as bit masks, and the length of
+	 *         its longest suffix
+	 */
+	static int[][] compute(Dictionary dictionary) {
+		int[] required = new int[dictionary.getNodeCount()];
+		int[] repeated = new int[dictionary.getNodeCount()];
+		int[] longest = new int[dictionary.getNodeCount()];
+		boolean[] done = new boolean[dictionary.getNodeCount()];
+		int[] stack = new int[16];
+		int[] nextLetters = new int[16];
+		int top = 0;
+		stack[0] = dictionary.getRoot();
+		while (top >= 0) {
+			int node = stack[top];
+			if (nextLetters[top] < Dictionary.ALPHABET_SIZE) {
+				int child = dictionary.getChild(node, nextLetters[top]++);
+				if (child != Dictionary.NO_NODE && !done[child]) {
+					if (++top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+						nextLetters = Arrays.copyOf(nextLetters, top * 2);
+					}
+					stack[top] = child;
+					nextLetters[top] = 0;
+				}
+				continue;
+			}
+			int nodeRequired = ALL_LETTERS;
+			int nodeRepeated = ALL_LETTERS;
+			int nodeLongest = 0;
+			if (dictionary.isWord(node)) {
+				nodeRequired = 0;
+				nodeRepeated = 0;
+			}
+			for (int letter = 0; letter < Dictionary.ALPHABET_SIZE; letter++) {
+				int child = dictionary.getChild(node, letter);
+				if (child != Dictionary.NO_NODE) {
+					nodeRequired &= required(letter, required[child]);
+					nodeRepeated &= repeated(letter, required[child], repeated[child]);
+					nodeLongest = Math.max(nodeLongest, longest[child] + 1);
+				}
+			}
+			required[node] = nodeRequired;
+			repeated[node] = nodeRepeated;
+			longest[node] = nodeLongest;
+			done[node] = true;
+			top--;
+		}
+		return new int[][] {required, repeated, longest};
+	}
+
+	/**
+	 * Returns the letters needed by every suffix that starts with the given
+	 * letter and continues with a suffix of a node with the given required
+	 * letters
+	 *
+	 * @param letter Index of the first letter of the suffixes
+	 * @param childRequired Required letters of the node reached by letter
+	 * @return The letters every such suffix contains
+	 */
+	static int required(int letter, int childRequired) {
+		return childRequired | (1 << letter);
+	}
+
+	/**
+	 * Returns the letters needed twice by every suffix that starts with the
+	 * given letter and continues with a suffix of a node with the given
+	 * required and repeated letters
+	 *
+	 * @param letter Index of the first letter of the suffixes
+	 * @param childRequired Required letters of the node reached by letter
+	 * @param childRepeated Repeated letters of the node reached by letter
+	 * @return The letters every such suffix contains at least twice
+	 */
+	static int repeated(int letter, int childRequired, int childRepeated) {
+		return childRepeated | (childRequired & (1 << letter));
+	}
+}
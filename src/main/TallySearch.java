@@ -0,0 +1,217 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Counts the distinct words of a board and totals their score, without
+ * creating a BogglePath or storing anything in the board. Each word found is
+ * identified by an id and marked in a bitmap, so a word spelled by several
+ * paths is only counted and scored the first time.
+ *
+ * A word's id is its node in dictionaries whose nodes identify prefixes.
+ * Otherwise it is the word's rank among the dictionary's words in sorted
+ * order, accumulated letter by letter as the search descends.
+ *
+ * A TallySearch keeps its scratch state, including the bitmap, between
+ * tallies so that repeated tallies allocate nothing. Only the bits of the
+ * words found are cleared afterwards. A TallySearch is used by one thread at
+ * a time.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class TallySearch {
+	private static final int INITIAL_DEPTH = 16;
+
+	/**
+	 * One bit per word id, set iff the word has been found by the current
+	 * tally, and the ids whose bits are set
+	 */
+	private long[] found = new long[1];
+	private int[] foundIds = new int[64];
+	/**
+	 * Number of distinct words found by the last tally, and their total score
+	 */
+	private int wordCount;
+	private int score;
+
+	/**
+	 * Search state: the cells, dictionary nodes, next neighbor to try, number
+	 * of letters and word rank of the current path at each depth, and the
+	 * cells on the current path
+	 */
+	private int[] cells = new int[INITIAL_DEPTH];
+	private int[] nodes = new int[INITIAL_DEPTH];
+	private int[] neighbors = new int[INITIAL_DEPTH];
+	private int[] wordLengths = new int[INITIAL_DEPTH];
+	private int[] ranks = new int[INITIAL_DEPTH];
+	private long[] visited = new long[1];
+
+	/**
+	 * Finds every word in the given dictionary whose length lies within the
+	 * given range that is contained in the given board, and keeps the number
+	 * of distinct words and their total score for getWordCount() and
+	 * getScore()
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param table Gives the points of each word
+	 * @param minLength Minimum number of letters in words to tally
+	 * @param maxLength Maximum number of letters in words to tally
+	 */
+	void tally(Dictionary dictionary, BoggleBoard board, ScoringTable table, int minLength,
+			int maxLength) {
+		boolean prefixNodes = dictionary.hasPrefixNodes();
+		int idCount = prefixNodes ? dictionary.getNodeCount()
+				: dictionary.getWordCount(dictionary.getRoot());
+		if ((long) found.length * 64 < idCount) {
+			found = new long[(idCount + 63) / 64];
+		}
+		if ((long) visited.length * 64 < board.tiles.length) {
+			visited = new long[(board.tiles.length + 63) / 64];
+		}
+		wordCount = 0;
+		score = 0;
+		TileAlphabet alphabet = board.alphabet;
+		TileTransitions transitions = alphabet.getTransitions(dictionary);
+		byte[] tiles = board.tiles;
+		int root = dictionary.getRoot();
+		for (int start = 0; start < tiles.length; start++) {
+			int node = transitions.step(dictionary, root, tiles[start]);
+			int length = alphabet.lengths[tiles[start]];
+			if (node == Dictionary.NO_NODE || length > maxLength ||
+					!BoggleSearch.canComplete(dictionary, board, node)) {
+				continue;
+			}
+			int depth = 0;
+			push(board, depth, start, node, length,
+					prefixNodes ? 0 : rankStep(dictionary, alphabet, root, tiles[start]));
+			if (length >= minLength && dictionary.isWord(node)) {
+				countWord(prefixNodes ? node : ranks[depth], length, table);
+			}
+			while (depth >= 0) {
+				int cell = cells[depth];
+				int neighbor = neighbors[depth];
+				if (neighbor == board.adjacencyStarts[cell + 1]) {
+					visited[cell >>> 6] &= ~(1L << cell);
+					depth--;
+					continue;
+				}
+				neighbors[depth] = neighbor + 1;
+				int nextCell = board.adjacency[neighbor];
+				if ((visited[nextCell >>> 6] & (1L << nextCell)) != 0) {
+					continue;
+				}
+				int nextLength = wordLengths[depth] + alphabet.lengths[tiles[nextCell]];
+				if (nextLength > maxLength) {
+					continue;
+				}
+				int nextNode = transitions.step(dictionary, nodes[depth], tiles[nextCell]);
+				if (nextNode == Dictionary.NO_NODE ||
+						!BoggleSearch.canComplete(dictionary, board, nextNode)) {
+					continue;
+				}
+				int rank = prefixNodes ? 0
+						: ranks[depth] + rankStep(dictionary, alphabet, nodes[depth], tiles[nextCell]);
+				depth++;
+				push(board, depth, nextCell, nextNode, nextLength, rank);
+				if (nextLength >= minLength && dictionary.isWord(nextNode)) {
+					countWord(prefixNodes ? nextNode : rank, nextLength, table);
+				}
+			}
+		}
+		for (int i = 0; i < wordCount; i++) {
+			found[foundIds[i] >>> 6] = 0;
+		}
+	}
+
+	/**
+	 * Returns the number of distinct words found by the last tally
+	 *
+	 * @return The number of distinct words found
+	 */
+	int getWordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * Returns the total score of the distinct words found by the last tally
+	 *
+	 * @return The total score of the words found
+	 */
+	int getScore() {
+		return score;
+	}
+
+	/**
+	 * Counts the word with the given id unless it has already been found
+	 */
+	private void countWord(int id, int length, ScoringTable table) {
+		long bit = 1L << id;
+		if ((found[id >>> 6] & bit) != 0) {
+			return;
+		}
+		found[id >>> 6] |= bit;
+		if (wordCount == foundIds.length) {
+			foundIds = Arrays.copyOf(foundIds, wordCount * 2);
+		}
+		foundIds[wordCount++] = id;
+		score += table.getPoints(length);
+	}
+
+	/**
+	 * Places the given cell on the path at the given depth and marks it as
+	 * visited
+	 */
+	private void push(BoggleBoard board, int depth, int cell, int node, int wordLength,
+			int rank) {
+		if (depth == cells.length) {
+			cells = Arrays.copyOf(cells, depth * 2);
+			nodes = Arrays.copyOf(nodes, depth * 2);
+			neighbors = Arrays.copyOf(neighbors, depth * 2);
+			wordLengths = Arrays.copyOf(wordLengths, depth * 2);
+			ranks = Arrays.copyOf(ranks, depth * 2);
+		}
+		cells[depth] = cell;
+		nodes[depth] = node;
+		neighbors[depth] = board.adjacencyStarts[cell];
+		wordLengths[depth] = wordLength;
+		ranks[depth] = rank;
+		visited[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * Returns the number of words that sort after the string leading to the
+	 * given node but before every word continuing from it with the letters of
+	 * the given tile
+	 *
+	 * @param dictionary The dictionary whose words are ranked
+	 * @param alphabet The alphabet of the tile
+	 * @param node The node the tile is followed from
+	 * @param tile Tile code of the tile, which must lead to a node
+	 * @return The number of words skipped by following the tile
+	 */
+	static int rankStep(Dictionary dictionary, TileAlphabet alphabet, int node, byte tile) {
+		int skipped = 0;
+		for (byte letter : alphabet.getLetters(tile)) {
+			skipped += skipped(dictionary, node, letter);
+			node = dictionary.getChild(node, letter);
+		}
+		return skipped;
+	}
+
+	/**
+	 * Returns the number of words that sort before every word continuing
+	 * from the given node with the given letter, and after the string
+	 * leading to the node
+	 */
+	private static int skipped(Dictionary dictionary, int node, int letter) {
+		int skipped = dictionary.isWord(node) ? 1 : 0;
+		for (int l = 0; l < letter; l++) {
+			int child = dictionary.getChild(node, l);
+			if (child != Dictionary.NO_NODE) {
+				skipped += dictionary.getWordCount(child);
+			}
+		}
+		return skipped;
+	}
+}
@@ -0,0 +1,278 @@
+package main;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+/**
+ * The tiles that the spaces of a board may hold. Each tile is a sequence of
+ * one or more letters, such as "E", "Qu" or "Th", and is identified within
+ * the alphabet by its tile code, its index in the alphabet. A board stores
+ * the tile code of each of its spaces.
+ *
+ * Solvers follow a whole tile through a dictionary in one step. A tile of
+ * one letter is a single child lookup; a tile of several letters is looked
+ * up in a table, kept for each dictionary the alphabet is solved with, that
+ * remembers where the tile leads from each node it has been followed from.
+ * Multi-letter tiles therefore cost about as much per step as single
+ * letters, whatever the alphabet. The table is replaced whenever words have
+ * been added to the dictionary since it was made.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+public final class TileAlphabet {
+	/**
+	 * Largest number of tiles an alphabet may have, so that every tile code
+	 * fits in a byte
+	 */
+	public static final int MAX_TILES = Byte.MAX_VALUE + 1;
+	/**
+	 * The tiles of standard Boggle: every capital letter, with "Qu" in place
+	 * of "Q". The tile code of each tile is the index of its first letter,
+	 * from 0 ('A') to 25 ('Z')
+	 */
+	public static final TileAlphabet STANDARD = new TileAlphabet("A", "B", "C", "D", "E", "F",
+			"G", "H", "I", "J", "K", "L", "M", "N", "O", "P", "Qu", "R", "S", "T", "U", "V", "W",
+			"X", "Y", "Z");
+
+	/**
+	 * The tiles, as written on a board
+	 */
+	private final String[] tiles;
+	private final Map<String, Byte> codes;
+	/**
+	 * Letter indices and lower case letters of each tile, by tile code
+	 */
+	private final byte[][] letters;
+	private final char[][] spellings;
+	/**
+	 * First letter index and number of letters of each tile, by tile code
+	 */
+	final byte[] firstLetters;
+	final byte[] lengths;
+	/**
+	 * Greatest number of letters on any tile
+	 */
+	final int maxLength;
+	/**
+	 * Transitions of the tiles through each dictionary this alphabet has been
+	 * solved with, and the last dictionary asked for along with its
+	 * transitions. The dictionaries are only weakly held
+	 */
+	private final Map<Dictionary, TileTransitions> transitions;
+	private volatile Cached cached;
+	/**
+	 * Transitions that walk every tile letter by letter and remember nothing
+	 */
+	private final TileTransitions unmemoized;
+
+	/**
+	 * Creates an alphabet of the given tiles, whose tile codes are their
+	 * indices in the order given
+	 *
+	 * @param tiles The tiles, each one or more letters from 'A' to 'Z' in
+	 *        either case, as they will be written on a board
+	 * @throws IllegalArgumentException if no tiles or more than MAX_TILES
+	 *         tiles are given, if a tile is empty or holds anything but
+	 *         letters, or if two tiles have the same letters
+	 */
+	public TileAlphabet(String... tiles) {
+		if (tiles.length == 0 || tiles.length > MAX_TILES) {
+			throw new IllegalArgumentException("Alphabet must have between 1 and "
+					+ MAX_TILES + " tiles");
+		}
+		this.tiles = tiles.clone();
+		codes = new HashMap<String, Byte>();
+		letters = new byte[tiles.length][];
+		spellings = new char[tiles.length][];
+		firstLetters = new byte[tiles.length];
+		lengths = new byte[tiles.length];
+		int longest = 0;
+		Map<String, String> spelled = new HashMap<String, String>();
+		for (int code = 0; code < tiles.length; code++) {
+			String tile = tiles[code];
+			if (tile.isEmpty() || tile.length() > Byte.MAX_VALUE) {
+				throw new IllegalArgumentException("Tile \"" + tile + "\" must have between 1 "
+						+ "and " + Byte.MAX_VALUE + " letters");
+			}
+			spellings[code] = tile.toLowerCase().toCharArray();
+			letters[code] = new byte[tile.length()];
+			for (int i = 0; i < tile.length(); i++) {
+				char c = spellings[code][i];
+				if (c < 'a' || c > 'z') {
+					throw new IllegalArgumentException("Tile \"" + tile + "\" may only "
+							+ "contain letters");
+				}
+				letters[code][i] = (byte) (c - 'a');
+			}
+			String previous = spelled.put(new String(spellings[code]), tile);
+			if (previous != null) {
+				throw new IllegalArgumentException("Tiles \"" + previous + "\" and \"" + tile
+						+ "\" have the same letters");
+			}
+			codes.put(tile, (byte) code);
+			firstLetters[code] = letters[code][0];
+			lengths[code] = (byte) tile.length();
+			longest = Math.max(longest, tile.length());
+		}
+		maxLength = longest;
+		transitions = new WeakHashMap<Dictionary, TileTransitions>();
+		unmemoized = new TileTransitions(this, 0);
+	}
+
+	/**
+	 * Returns the number of tiles in this alphabet
+	 *
+	 * @return The number of tiles
+	 */
+	public int size() {
+		return tiles.length;
+	}
+
+	/**
+	 * Returns the tiles of this alphabet, in the order of their tile codes
+	 *
+	 * @return An unmodifiable list of the tiles
+	 */
+	public List<String> getTiles() {
+		return Collections.unmodifiableList(Arrays.asList(tiles));
+	}
+
+	/**
+	 * Returns true iff the given string is a tile of this alphabet, written
+	 * as the alphabet writes it
+	 *
+	 * @param tile The string to be checked
+	 * @return True if tile is in this alphabet, else false
+	 */
+	public boolean contains(String tile) {
+		return codes.containsKey(tile);
+	}
+
+	/**
+	 * Returns a tile of this alphabet drawn from the given source of
+	 * randomness, every tile being equally likely
+	 *
+	 * @param random Source of the tile
+	 * @return A random tile
+	 */
+	public String randomTile(Random random) {
+		return tiles[random.nextInt(tiles.length)];
+	}
+
+	/**
+	 * Returns the tile code of the given tile
+	 *
+	 * @param tile A tile of this alphabet
+	 * @return The tile code of tile
+	 * @throws IllegalArgumentException if tile is not in this alphabet
+	 */
+	byte codeOf(String tile) {
+		Byte code = codes.get(tile);
+		if (code == null) {
+			throw new IllegalArgumentException("Tile \"" + tile + "\" is not one of " + this);
+		}
+		return code;
+	}
+
+	/**
+	 * Returns the tile with the given tile code
+	 *
+	 * @param code A tile code of this alphabet
+	 * @return The tile, as written on a board
+	 */
+	String getTile(byte code) {
+		return tiles[code];
+	}
+
+	/**
+	 * Returns the letter indices of the tile with the given tile code. The
+	 * array returned is shared and must not be modified.
+	 *
+	 * @param code A tile code of this alphabet
+	 * @return The indices of the tile's letters, in order
+	 */
+	byte[] getLetters(byte code) {
+		return letters[code];
+	}
+
+	/**
+	 * Writes the letters of the tile with the given tile code, in lower case,
+	 * into the given array
+	 *
+	 * @param code A tile code of this alphabet
+	 * @param destination Array to write the letters into
+	 * @param position Index in destination of the first letter
+	 * @return The index in destination after the last letter
+	 */
+	int spell(byte code, char[] destination, int position) {
+		char[] spelling = spellings[code];
+		if (spelling.length == 1) {
+			destination[position] = spelling[0];
+			return position + 1;
+		}
+		System.arraycopy(spelling, 0, destination, position, spelling.length);
+		return position + spelling.length;
+	}
+
+	/**
+	 * Returns the transitions of the tiles of this alphabet through the given
+	 * dictionary, creating them the first time the dictionary is asked for
+	 * and again whenever its node count has changed since
+	 *
+	 * @param dictionary The dictionary the tiles will be followed through
+	 * @return The transitions through dictionary
+	 */
+	TileTransitions getTransitions(Dictionary dictionary) {
+		int nodeCount = dictionary.getNodeCount();
+		Cached last = cached;
+		if (last != null && last.dictionary.get() == dictionary &&
+				last.transitions.nodeCount == nodeCount) {
+			return last.transitions;
+		}
+		TileTransitions found;
+		synchronized (transitions) {
+			found = transitions.get(dictionary);
+			if (found == null || found.nodeCount != nodeCount) {
+				found = new TileTransitions(this, nodeCount);
+				transitions.put(dictionary, found);
+			}
+		}
+		cached = new Cached(dictionary, found);
+		return found;
+	}
+
+	/**
+	 * Returns transitions of the tiles of this alphabet that remember
+	 * nothing, for dictionaries that are searched only once, so that no table
+	 * is made or cached for them
+	 *
+	 * @return Transitions through any dictionary
+	 */
+	TileTransitions getUnmemoizedTransitions() {
+		return unmemoized;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(tiles);
+	}
+
+	/**
+	 * A dictionary, weakly held, and the transitions through it
+	 */
+	private static class Cached {
+		private final WeakReference<Dictionary> dictionary;
+		private final TileTransitions transitions;
+
+		private Cached(Dictionary dictionary, TileTransitions transitions) {
+			this.dictionary = new WeakReference<Dictionary>(dictionary);
+			this.transitions = transitions;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Follows the tiles of a TileAlphabet through one dictionary. A tile of one
+ * letter is followed with a single child lookup. Where a tile of several
+ * letters leads from each node is computed the first time the tile is
+ * followed from that node, and remembered, so following it again is a single
+ * array lookup however many letters it has.
+ *
+ * Each multi-letter tile has a table indexed by node, created the first time
+ * the tile is followed, holding the node reached plus 2. An entry of 0 has
+ * not been computed yet, and an entry of 1 leads nowhere. Entries only ever
+ * change from 0 to their one correct value, so threads may fill them in
+ * concurrently without locking.
+ *
+ * Tables only cover the nodes the dictionary had when the transitions were
+ * created. A tile followed from any later node is walked letter by letter,
+ * and transitions created for no nodes at all never remember anything,
+ * which suits dictionaries that are only searched once. Since words are only
+ * ever added to a dictionary, never removed, TileAlphabet creates new
+ * transitions whenever a dictionary's node count changes, so that no table
+ * outlives the edges it was computed from.
+ *
+ * The dictionary itself is not held, so that an alphabet caching its
+ * transitions does not keep the dictionary alive.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class TileTransitions {
+	private final TileAlphabet alphabet;
+	/**
+	 * Number of nodes of the dictionary when these transitions were created
+	 */
+	final int nodeCount;
+	/**
+	 * Table of each multi-letter tile by tile code, or null until the tile is
+	 * first followed. Always null for tiles of one letter
+	 */
+	private final AtomicReferenceArray<int[]> tables;
+
+	/**
+	 * Creates transitions of the given alphabet's tiles through a dictionary
+	 * with the given number of nodes
+	 *
+	 * @param alphabet The tiles to be followed
+	 * @param nodeCount Number of nodes in the dictionary, or 0 to remember
+	 *        nothing
+	 */
+	TileTransitions(TileAlphabet alphabet, int nodeCount) {
+		this.alphabet = alphabet;
+		this.nodeCount = nodeCount;
+		tables = new AtomicReferenceArray<int[]>(alphabet.size());
+	}
+
+	/**
+	 * Returns the node reached by following every letter of the given tile
+	 * from the given node
+	 *
+	 * @param dictionary The dictionary these transitions were created for
+	 * @param node The node to step from
+	 * @param tile Tile code of the tile to follow
+	 * @return The node reached, or Dictionary.NO_NODE if there is none
+	 */
+	int step(Dictionary dictionary, int node, byte tile) {
+		if (alphabet.lengths[tile] == 1) {
+			return dictionary.getChild(node, alphabet.firstLetters[tile]);
+		}
+		if (node >= nodeCount) {
+			return walk(dictionary, node, tile);
+		}
+		int[] table = tables.get(tile);
+		if (table == null) {
+			tables.compareAndSet(tile, null, new int[nodeCount]);
+			table = tables.get(tile);
+		}
+		int known = table[node];
+		if (known != 0) {
+			return known - 2;
+		}
+		int next = walk(dictionary, node, tile);
+		table[node] = next + 2;
+		return next;
+	}
+
+	/**
+	 * Follows the letters of the given tile from the given node one at a time
+	 *
+	 * @param dictionary The dictionary to walk
+	 * @param node The node to step from
+	 * @param tile Tile code of the tile to follow
+	 * @return The node reached, or Dictionary.NO_NODE if there is none
+	 */
+	private int walk(Dictionary dictionary, int node, byte tile) {
+		for (byte letter : alphabet.getLetters(tile)) {
+			node = dictionary.getChild(node, letter);
+			if (node == Dictionary.NO_NODE) {
+				break;
+			}
+		}
+		return node;
+	}
+}
@@ -1,98 +1,341 @@
 package main;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * A simple Trie data structure that stores strings as keys and a boolean
- * representing whether or not the corresponding string is a valid word. 
+ * representing whether or not the corresponding string is a valid word.
  * Includes methods for inserting strings and checking if a given prefix/word
  * is a valid prefix/word in the Trie.
- * 
+ *
+ * Nodes are not stored as objects. Each node is an index into a set of flat
+ * int pools: a mask holding one presence bit per letter (plus a flag marking
+ * the end of a word), and the offset of the node's child block in a shared
+ * edge pool. Children within a block are ordered by letter, so the child for
+ * a given letter is found by counting the set bits below that letter's bit.
+ * Only the letters 'a' through 'z' (in either case) can be stored.
+ *
+ * Nodes can also be walked one step at a time through the Dictionary
+ * interface. Node handles stay valid as more words are inserted. Every node
+ * also records how many words lie in its subtree.
+ *
  * @author Daniel Merken <dcm58@uw.edu>
  */
 
-public class Trie {
-	private TrieNode root;
-	
-	/**
-	 * Class for a node representing a character or the root in a Trie. 
-	 */
-	public class TrieNode {
-		/*
-		 * Stores the children nodes of this node
-		 */
-		public Map<Character, TrieNode> children;
-		/* 
-		 * True iff the character this node represents the final character in
-		 * a string
-		 */
-		public boolean validWord; 
-		
-		/**
-		 * Constructs a new empty TrieNode
-		 */
-		public TrieNode() {
-			validWord = false;
-			children = new HashMap<Character, TrieNode>();
-		}
-	}
-	
+public class Trie implements Dictionary {
+	private static final int INITIAL_CAPACITY = 1024;
+	/**
+	 * Bit of a node's mask that is set iff the node ends a word
+	 */
+	private static final int WORD_FLAG = 1 << 31;
+	/**
+	 * Mask of the bits of a node's mask that mark the presence of children
+	 */
+	private static final int CHILD_BITS = (1 << ALPHABET_SIZE) - 1;
+	private static final int ROOT = 0;
+
+	/**
+	 * Stores, for every node, which letters have a child and whether or not
+	 * the node ends a word
+	 */
+	private int[] masks;
+	/**
+	 * Stores, for every node, the index in edges where its children begin
+	 */
+	private int[] bases;
+	/**
+	 * Stores the child blocks of every node
+	 */
+	private int[] edges;
+	/**
+	 * Stores, for every node, the number of words in its subtree, including
+	 * the word ending at the node itself
+	 */
+	private int[] wordCounts;
+	/**
+	 * Number of nodes in this Trie, including the root
+	 */
+	private int nodeCount;
+	/**
+	 * Number of entries of edges that are in use
+	 */
+	private int edgeCount;
+	/**
+	 * Number of entries at the start of edges whose child blocks were packed
+	 * with no spare room by trimToSize()
+	 */
+	private int packedEdgeCount;
+	/**
+	 * Stores, for every node, the letters required and the letters repeated
+	 * by every word below it, or null if they have not been computed since
+	 * the last insertion
+	 */
+	private int[] requiredLetters;
+	private int[] repeatedLetters;
+	/**
+	 * Stores, for every node, the number of letters in the longest suffix
+	 * that completes it, or null if not computed since the last insertion
+	 */
+	private int[] suffixLengths;
+	/**
+	 * Number of letters in the longest word inserted
+	 */
+	private int maxWordLength;
+
 	/**
 	 * Constructs a new empty Trie
 	 */
 	public Trie() {
-		root = new TrieNode();
+		masks = new int[INITIAL_CAPACITY];
+		bases = new int[INITIAL_CAPACITY];
+		edges = new int[INITIAL_CAPACITY];
+		wordCounts = new int[INITIAL_CAPACITY];
+		nodeCount = 1;
+		edgeCount = 0;
 	}
-	
+
 	/**
 	 * Inserts the given string, word, into this Trie
 	 * @param word The string to be inserted into the Trie
+	 * @throws IllegalArgumentException if word contains characters other than
+	 *         letters from 'a' to 'z'
 	 */
 	public void insert(String word) {
-		word = word.toLowerCase();
-		TrieNode currNode = root;
 		for (int i = 0; i < word.length(); i++) {
-			if (!currNode.children.containsKey(word.charAt(i))) {
-				currNode.children.put(word.charAt(i), new TrieNode());
+			if (letterIndex(word.charAt(i)) < 0) {
+				throw new IllegalArgumentException("Trie can only contain "
+						+ "letters from 'a' to 'z'");
 			}
-			currNode = currNode.children.get(word.charAt(i));
 		}
-		currNode.validWord = true;
-	}
-	
-	/**
-	 * Determines whether or not a given string, prefix, is the prefix to any
-	 * word contained in this Trie.
-	 * @param prefix The string to be checked in this Trie
-	 * @return True if the provided string is a prefix to any word in this Trie,
-	 * else returns false
-	 */
-	public boolean containsPrefix(String prefix) {
-		prefix = prefix.toLowerCase();
-		TrieNode currNode = root;
-		for (int i = 0; i < prefix.length(); i++) {
-			if (!currNode.children.containsKey(prefix.charAt(i))) {
-				return false;
+		requiredLetters = null;
+		repeatedLetters = null;
+		suffixLengths = null;
+		maxWordLength = Math.max(maxWordLength, word.length());
+		int currNode = ROOT;
+		for (int i = 0; i < word.length(); i++) {
+			int letter = letterIndex(word.charAt(i));
+			int nextNode = getChild(currNode, letter);
+			if (nextNode == NO_NODE) {
+				nextNode = addChild(currNode, letter);
+			}
+			currNode = nextNode;
+		}
+		if (!isWord(currNode)) {
+			masks[currNode] |= WORD_FLAG;
+			currNode = ROOT;
+			wordCounts[currNode]++;
+			for (int i = 0; i < word.length(); i++) {
+				currNode = getChild(currNode, letterIndex(word.charAt(i)));
+				wordCounts[currNode]++;
 			}
-			currNode = currNode.children.get(prefix.charAt(i));
 		}
-		return true;
 	}
-	
+
+	@Override
+	public int getRoot() {
+		return ROOT;
+	}
+
+	@Override
+	public boolean isWord(int node) {
+		return (masks[node] & WORD_FLAG) != 0;
+	}
+
+	@Override
+	public int getWordCount(int node) {
+		return wordCounts[node];
+	}
+
+	@Override
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	@Override
+	public int getMaxWordLength() {
+		return maxWordLength;
+	}
+
 	/**
-	 * Determines whether or not a given string, word, is contained in this Trie
-	 * @param word The string to be checked in this Trie
-	 * @return True if this word is in this Trie, else returns false
+	 * Returns the letters required by every word below the given node. Only
+	 * tracked once trimToSize() has been called, and until the next
+	 * insertion; otherwise returns 0.
+	 *
+	 * @param node The node to be checked
+	 * @return The required letters of node, as a bit mask
 	 */
-	public boolean containsWord(String word) {
-		word = word.toLowerCase();
-		TrieNode currNode = root;
-		for (int i = 0; i < word.length(); i++) {
-			if (!currNode.children.containsKey(word.charAt(i))) {
-				return false;
+	@Override
+	public int getRequiredLetters(int node) {
+		int[] letters = requiredLetters;
+		return letters == null ? 0 : letters[node];
+	}
+
+	/**
+	 * Returns the letters repeated by every word below the given node. Only
+	 * tracked once trimToSize() has been called, and until the next
+	 * insertion; otherwise returns 0.
+	 *
+	 * @param node The node to be checked
+	 * @return The repeated letters of node, as a bit mask
+	 */
+	@Override
+	public int getRepeatedLetters(int node) {
+		int[] letters = repeatedLetters;
+		return letters == null ? 0 : letters[node];
+	}
+
+	/**
+	 * Returns the number of letters in the longest suffix that completes the
+	 * given node to a word. Only exact once trimToSize() has been called, and
+	 * until the next insertion; otherwise returns the length of the longest
+	 * word.
+	 *
+	 * @param node The node to be checked
+	 * @return An upper bound on the length of the suffixes of node
+	 */
+	@Override
+	public int getMaxSuffixLength(int node) {
+		int[] lengths = suffixLengths;
+		return lengths == null ? maxWordLength : lengths[node];
+	}
+
+	/**
+	 * Shrinks the pools backing this Trie to the smallest size that holds its
+	 * current contents, discarding the spare room left behind by insertions.
+	 * Useful once a dictionary has finished loading. Also computes the
+	 * letters required by the words below each node, used to prune searches.
+	 */
+	public void trimToSize() {
+		int[] packedEdges = new int[edgeCount];
+		int packedCount = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			int size = Integer.bitCount(masks[node] & CHILD_BITS);
+			System.arraycopy(edges, bases[node], packedEdges, packedCount, size);
+			bases[node] = packedCount;
+			packedCount += size;
+		}
+		edges = Arrays.copyOf(packedEdges, packedCount);
+		edgeCount = packedCount;
+		packedEdgeCount = packedCount;
+		masks = Arrays.copyOf(masks, nodeCount);
+		bases = Arrays.copyOf(bases, nodeCount);
+		wordCounts = Arrays.copyOf(wordCounts, nodeCount);
+		computeSuffixLetters();
+	}
+
+	/**
+	 * Computes the required and repeated letters and the longest suffix
+	 * length of every node. Children are
+	 * always created after their parents, so visiting nodes in reverse order
+	 * visits every child before its parent.
+	 */
+	private void computeSuffixLetters() {
+		int[] required = new int[nodeCount];
+		int[] repeated = new int[nodeCount];
+		int[] longest = new int[nodeCount];
+		for (int node = nodeCount - 1; node >= 0; node--) {
+			int mask = masks[node];
+			int nodeRequired = SuffixLetters.ALL_LETTERS;
+			int nodeRepeated = SuffixLetters.ALL_LETTERS;
+			int nodeLongest = 0;
+			if ((mask & WORD_FLAG) != 0) {
+				nodeRequired = 0;
+				nodeRepeated = 0;
+			}
+			int children = mask & CHILD_BITS;
+			for (int i = bases[node]; children != 0; i++) {
+				int letter = Integer.numberOfTrailingZeros(children);
+				children &= children - 1;
+				int child = edges[i];
+				nodeRequired &= SuffixLetters.required(letter, required[child]);
+				nodeRepeated &= SuffixLetters.repeated(letter, required[child], repeated[child]);
+				nodeLongest = Math.max(nodeLongest, longest[child] + 1);
 			}
-			currNode = currNode.children.get(word.charAt(i));
+			required[node] = nodeRequired;
+			repeated[node] = nodeRepeated;
+			longest[node] = nodeLongest;
+		}
+		requiredLetters = required;
+		repeatedLetters = repeated;
+		suffixLengths = longest;
+	}
+
+	@Override
+	public int getChild(int node, int letter) {
+		int mask = masks[node];
+		int bit = 1 << letter;
+		if ((mask & bit) == 0) {
+			return NO_NODE;
+		}
+		return edges[bases[node] + Integer.bitCount(mask & (bit - 1))];
+	}
+
+	/**
+	 * Creates a new child of the given node for the given letter. The node's
+	 * child block is moved to the end of the edge pool whenever it runs out
+	 * of room, doubling its capacity. Blocks packed by trimToSize() have no
+	 * spare room.
+	 *
+	 * @param node The parent node, which must not yet have a child for letter
+	 * @param letter Index of the letter, from 0 ('a') to 25 ('z')
+	 * @return The new child node
+	 */
+	private int addChild(int node, int letter) {
+		if (nodeCount == masks.length) {
+			masks = Arrays.copyOf(masks, nodeCount * 2);
+			bases = Arrays.copyOf(bases, nodeCount * 2);
+			wordCounts = Arrays.copyOf(wordCounts, nodeCount * 2);
 		}
-		return currNode.validWord;
+		int newNode = nodeCount++;
+
+		int mask = masks[node];
+		int size = Integer.bitCount(mask & CHILD_BITS);
+		int base = bases[node];
+		int capacity = base < packedEdgeCount ? size : blockCapacity(size);
+		if (size == capacity) {
+			int newBase = allocateEdges(blockCapacity(size + 1));
+			System.arraycopy(edges, base, edges, newBase, size);
+			base = newBase;
+			bases[node] = base;
+		}
+		int rank = Integer.bitCount(mask & ((1 << letter) - 1));
+		System.arraycopy(edges, base + rank, edges, base + rank + 1, size - rank);
+		edges[base + rank] = newNode;
+		masks[node] = mask | (1 << letter);
+		return newNode;
+	}
+
+	/**
+	 * Reserves the given number of entries at the end of the edge pool
+	 *
+	 * @param size Number of entries to reserve
+	 * @return Index of the first reserved entry
+	 */
+	private int allocateEdges(int size) {
+		if (edgeCount + size > edges.length) {
+			edges = Arrays.copyOf(edges, Math.max(edges.length * 2, edgeCount + size));
+		}
+		int start = edgeCount;
+		edgeCount += size;
+		return start;
+	}
+
+	/**
+	 * Returns the capacity of a child block holding the given number of
+	 * children: the smallest power of two that is at least size
+	 */
+	private static int blockCapacity(int size) {
+		return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+	}
+
+	/**
+	 * Returns the index of the given letter, from 0 ('a') to 25 ('z'),
+	 * ignoring case
+	 *
+	 * @param c The letter
+	 * @return The index of c, or -1 if c is not a letter from 'a' to 'z'
+	 */
+	static int letterIndex(char c) {
+		int index = (c | 0x20) - 'a';
+		return index >= 0 && index < ALPHABET_SIZE ? index : -1;
 	}
 }
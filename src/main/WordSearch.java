@@ -0,0 +1,289 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Solves a board by searching for each word of the dictionary in turn,
+ * rather than by searching from each space of the board. Suited to small
+ * dictionaries and large boards, where most spaces cannot start any word and
+ * most letters of the board are never needed.
+ *
+ * The spaces of the board are first indexed by letter. The dictionary is then
+ * walked following only letters the board has, and each word reached is
+ * searched for from the spaces holding its rarest letter on the board: the
+ * path is extended backwards to the word's first letter and then forwards to
+ * its last. Every path has exactly one space at the position of that letter,
+ * so every path spelling the word is found exactly once, and a word with a
+ * letter the board lacks is never searched for at all.
+ *
+ * The dictionary is walked one tile of the board's alphabet at a time. In
+ * alphabets where a word can be split into tiles in more than one way, such
+ * as with "T", "H" and "Th" tiles, each way is searched for separately.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class WordSearch {
+	private final Dictionary dictionary;
+	private final BoggleBoard board;
+	private final TileAlphabet alphabet;
+	private final TileTransitions transitions;
+	private final int minLength;
+	private final int maxLength;
+	private final boolean uniqueWords;
+	/**
+	 * The cell ids of the spaces holding tile code t are
+	 * tileCells[tileStarts[t]] up to, but not including,
+	 * tileCells[tileStarts[t + 1]]
+	 */
+	private final int[] tileStarts;
+	private final int[] tileCells;
+
+	/**
+	 * Tile codes of the word being searched for, and the letters they spell
+	 */
+	private byte[] wordTiles;
+	private char[] letters;
+	/**
+	 * Positions of the word in the order their spaces are chosen, and the
+	 * cell chosen for each position so far
+	 */
+	private int[] order;
+	private int[] cells;
+	/**
+	 * One bit per cell of the board, set iff the cell is on the current path
+	 */
+	private final long[] visited;
+	/**
+	 * Solutions found so far, or null if there are none, and the words they
+	 * spell if only unique words are stored
+	 */
+	private List<BogglePath> found;
+	private final Set<String> foundWords;
+
+	/**
+	 * Creates a search of the given board
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store
+	 */
+	WordSearch(Dictionary dictionary, BoggleBoard board, SolveMode mode, int minLength,
+			int maxLength) {
+		this(dictionary, board, mode, minLength, maxLength,
+				board.alphabet.getTransitions(dictionary));
+	}
+
+	/**
+	 * Creates a search of the given board that follows tiles through the
+	 * dictionary with the given transitions
+	 *
+	 * @param dictionary Contains a dictionary of which words to search for
+	 * @param board The board in which to search for words
+	 * @param mode Which of the paths found to store in the board
+	 * @param minLength Minimum number of letters in words to store
+	 * @param maxLength Maximum number of letters in words to store
+	 * @param transitions Transitions of the board's alphabet through
+	 *        dictionary
+	 */
+	WordSearch(Dictionary dictionary, BoggleBoard board, SolveMode mode, int minLength,
+			int maxLength, TileTransitions transitions) {
+		this.dictionary = dictionary;
+		this.board = board;
+		alphabet = board.alphabet;
+		this.transitions = transitions;
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.uniqueWords = mode == SolveMode.UNIQUE_WORDS;
+		foundWords = uniqueWords ? new HashSet<String>() : null;
+		byte[] tiles = board.tiles;
+		tileStarts = new int[alphabet.size() + 1];
+		tileCells = new int[tiles.length];
+		for (byte tile : tiles) {
+			tileStarts[tile + 1]++;
+		}
+		for (int tile = 0; tile < alphabet.size(); tile++) {
+			tileStarts[tile + 1] += tileStarts[tile];
+		}
+		int[] next = Arrays.copyOf(tileStarts, alphabet.size());
+		for (int cell = 0; cell < tiles.length; cell++) {
+			tileCells[next[tiles[cell]]++] = cell;
+		}
+		wordTiles = new byte[16];
+		letters = new char[32];
+		order = new int[16];
+		cells = new int[16];
+		visited = new long[(tiles.length + 63) / 64];
+	}
+
+	/**
+	 * Finds every word in the board and stores them in the board
+	 */
+	void solve() {
+		// Walk the dictionary one tile at a time, keeping the node, the next
+		// tile to try and the number of letters spelled at each depth
+		int[] nodes = new int[16];
+		int[] nextTiles = new int[16];
+		int[] lengths = new int[16];
+		nodes[0] = dictionary.getRoot();
+		int depth = 0;
+		while (depth >= 0) {
+			int tile = nextTiles[depth];
+			if (tile == alphabet.size()) {
+				depth--;
+				continue;
+			}
+			nextTiles[depth] = tile + 1;
+			int length = lengths[depth] + alphabet.lengths[tile];
+			if (tileStarts[tile + 1] == tileStarts[tile] || length > maxLength) {
+				continue;
+			}
+			int node = transitions.step(dictionary, nodes[depth], (byte) tile);
+			if (node == Dictionary.NO_NODE ||
+					!BoggleSearch.canComplete(dictionary, board, node)) {
+				continue;
+			}
+			if (depth + 1 == nodes.length) {
+				nodes = Arrays.copyOf(nodes, nodes.length * 2);
+				nextTiles = Arrays.copyOf(nextTiles, nodes.length);
+				lengths = Arrays.copyOf(lengths, nodes.length);
+			}
+			if (depth == wordTiles.length) {
+				wordTiles = Arrays.copyOf(wordTiles, depth * 2);
+			}
+			wordTiles[depth] = (byte) tile;
+			depth++;
+			nodes[depth] = node;
+			nextTiles[depth] = 0;
+			lengths[depth] = length;
+			if (dictionary.isWord(node) && length >= minLength) {
+				searchWord(depth, length);
+			}
+		}
+		if (found != null) {
+			board.addSolutions(found);
+			found = null;
+		}
+	}
+
+	/**
+	 * Finds the paths through the board that spell the word whose tile codes
+	 * are the first tileCount entries of wordTiles
+	 *
+	 * @param tileCount Number of tiles in the word
+	 * @param length Number of letters in the word
+	 */
+	private void searchWord(int tileCount, int length) {
+		if (tileCount > order.length) {
+			order = Arrays.copyOf(order, tileCount * 2);
+			cells = Arrays.copyOf(cells, tileCount * 2);
+		}
+		if (length > letters.length) {
+			letters = Arrays.copyOf(letters, length * 2);
+		}
+		// Anchor the search on the tile with the fewest spaces on the board
+		int anchor = 0;
+		for (int i = 1; i < tileCount; i++) {
+			if (countCells(wordTiles[i]) < countCells(wordTiles[anchor])) {
+				anchor = i;
+			}
+		}
+		int i = 0;
+		for (int position = anchor; position >= 0; position--) {
+			order[i++] = position;
+		}
+		for (int position = anchor + 1; position < tileCount; position++) {
+			order[i++] = position;
+		}
+		extend(0, tileCount, anchor, length);
+	}
+
+	/**
+	 * Chooses the space at the given step of the order of the word's
+	 * positions, in every way that continues the spaces already chosen, and
+	 * records each complete path found
+	 *
+	 * @param step Index in order of the position to choose a space for
+	 * @param tileCount Number of tiles in the word
+	 * @param anchor Position of the word that is chosen first
+	 * @param length Number of letters in the word
+	 * @return True if the search should stop, because a unique word has been
+	 *         found
+	 */
+	private boolean extend(int step, int tileCount, int anchor, int length) {
+		if (step == tileCount) {
+			addSolution(tileCount, length);
+			return uniqueWords;
+		}
+		int position = order[step];
+		byte tile = wordTiles[position];
+		if (step == 0) {
+			for (int i = tileStarts[tile]; i < tileStarts[tile + 1]; i++) {
+				if (visit(tileCells[i], step, tileCount, anchor, length)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		// Positions before the anchor continue from the position after them,
+		// positions after it from the position before them
+		int from = cells[position < anchor ? position + 1 : position - 1];
+		for (int i = board.adjacencyStarts[from]; i < board.adjacencyStarts[from + 1]; i++) {
+			int cell = board.adjacency[i];
+			if (board.tiles[cell] == tile && (visited[cell >>> 6] & (1L << cell)) == 0 &&
+					visit(cell, step, tileCount, anchor, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Places the given cell at the given step of the order and continues the
+	 * search from it
+	 *
+	 * @return True if the search should stop
+	 */
+	private boolean visit(int cell, int step, int tileCount, int anchor, int length) {
+		cells[order[step]] = cell;
+		visited[cell >>> 6] |= 1L << cell;
+		boolean stop = extend(step + 1, tileCount, anchor, length);
+		visited[cell >>> 6] &= ~(1L << cell);
+		return stop;
+	}
+
+	/**
+	 * Records the path in cells, which spells the current word, as a solution
+	 * of the board
+	 *
+	 * @param tileCount Number of tiles in the word
+	 * @param length Number of letters in the word
+	 */
+	private void addSolution(int tileCount, int length) {
+		int letter = 0;
+		for (int i = 0; i < tileCount; i++) {
+			letter = alphabet.spell(wordTiles[i], letters, letter);
+		}
+		String word = new String(letters, 0, length);
+		// The word may already have been found split into different tiles
+		if (uniqueWords && !foundWords.add(word)) {
+			return;
+		}
+		if (found == null) {
+			found = new ArrayList<BogglePath>();
+		}
+		found.add(board.createPath(cells, tileCount, word));
+	}
+
+	/**
+	 * Returns the number of spaces of the board holding the given tile
+	 */
+	private int countCells(byte tile) {
+		return tileStarts[tile + 1] - tileStarts[tile];
+	}
+}
@@ -0,0 +1,190 @@
+package main;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tracks which words of a dictionary have been found during one solve. Words
+ * are identified by the dictionary node that ends them. The tracker is an
+ * overlay: the dictionary itself is never modified, so any number of solves
+ * may share a dictionary, each with its own tracker.
+ *
+ * Found words are kept in a bitset with one bit per node. Alongside it, the
+ * tracker counts how many words of each node's subtree have been found, so
+ * that the number of words remaining below a node is its dictionary word
+ * count minus its found count. A node with no remaining words is exhausted:
+ * nothing new can be found below it. Both overlays are split into pages that
+ * are only allocated once a word on them is found, so a solve that finds few
+ * words stays cheap even with a large dictionary. A tracker may be shared by
+ * every thread working on a solve. The dictionary must not be modified while
+ * it is being tracked.
+ *
+ * Nodes can only identify words if the dictionary has prefix nodes. For other
+ * dictionaries, such as a Dawg, the tracker instead keeps a set of the words
+ * found, and never reports a node as exhausted.
+ *
+ * @author Daniel Merken <dcm58@uw.edu>
+ */
+class WordTracker {
+	private static final int PAGE_BITS = 12;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+	/**
+	 * The dictionary whose words are tracked
+	 */
+	private final Dictionary dictionary;
+	/**
+	 * Pages of the found bitset, or null for pages with no found words
+	 */
+	private final AtomicReferenceArray<AtomicLongArray> foundPages;
+	/**
+	 * Pages of the per-node found counts, or null for pages whose counts are
+	 * all 0
+	 */
+	private final AtomicReferenceArray<AtomicIntegerArray> countPages;
+	/**
+	 * Words found, if the dictionary's nodes do not identify prefixes, else
+	 * null
+	 */
+	private final Set<String> foundWords;
+
+	/**
+	 * Creates a tracker with no found words for the given dictionary
+	 *
+	 * @param dictionary The dictionary whose words will be tracked
+	 */
+	WordTracker(Dictionary dictionary) {
+		this.dictionary = dictionary;
+		int pageCount = dictionary.hasPrefixNodes() ? 
+				(dictionary.getNodeCount() + PAGE_SIZE - 1) >>> PAGE_BITS : 0;
+		foundPages = new AtomicReferenceArray<AtomicLongArray>(pageCount);
+		countPages = new AtomicReferenceArray<AtomicIntegerArray>(pageCount);
+		foundWords = dictionary.hasPrefixNodes() ? null : 
+			ConcurrentHashMap.<String>newKeySet();
+	}
+
+	/**
+	 * Returns true iff this tracker identifies words by the node that ends
+	 * them. If not, words must be marked with markFound(String).
+	 *
+	 * @return True if words are tracked by node, else false
+	 */
+	boolean tracksNodes() {
+		return foundWords == null;
+	}
+
+	/**
+	 * Marks the given word as found. Only used if this tracker does not track
+	 * nodes.
+	 *
+	 * @param word A word of the dictionary
+	 * @return True if the word had not been found before, false if it had.
+	 *         When threads race to mark the same word, exactly one of them
+	 *         gets true
+	 */
+	boolean markFound(String word) {
+		return foundWords.add(word);
+	}
+
+	/**
+	 * Marks the word ending at the given node as found. Only used if this
+	 * tracker tracks nodes.
+	 *
+	 * @param node A dictionary node that ends a word
+	 * @return True if the word had not been found before, false if it had.
+	 *         When threads race to mark the same word, exactly one of them
+	 *         gets true
+	 */
+	boolean markFound(int node) {
+		AtomicLongArray page = foundPages.get(node >>> PAGE_BITS);
+		if (page == null) {
+			foundPages.compareAndSet(node >>> PAGE_BITS, null,
+					new AtomicLongArray(PAGE_SIZE / 64));
+			page = foundPages.get(node >>> PAGE_BITS);
+		}
+		int index = (node & (PAGE_SIZE - 1)) >>> 6;
+		long bit = 1L << node;
+		long bits;
+		do {
+			bits = page.get(index);
+			if ((bits & bit) != 0) {
+				return false;
+			}
+		} while (!page.compareAndSet(index, bits, bits | bit));
+		return true;
+	}
+
+	/**
+	 * Marks the word ending at the last of the given path nodes as found. If
+	 * the word is new, it no longer counts as remaining below any node of the
+	 * path. Only used if this tracker tracks nodes.
+	 *
+	 * @param path Dictionary nodes reached by each prefix of the word, not
+	 *        including the root
+	 * @param length Number of nodes in path
+	 * @return True if the word had not been found before, false if it had
+	 */
+	boolean markFound(int[] path, int length) {
+		if (!markFound(path[length - 1])) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			AtomicIntegerArray page = countPages.get(path[i] >>> PAGE_BITS);
+			if (page == null) {
+				countPages.compareAndSet(path[i] >>> PAGE_BITS, null,
+						new AtomicIntegerArray(PAGE_SIZE));
+				page = countPages.get(path[i] >>> PAGE_BITS);
+			}
+			page.incrementAndGet(path[i] & (PAGE_SIZE - 1));
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true iff the word ending at the given node has been found.
+	 * Always false if this tracker does not track nodes.
+	 *
+	 * @param node A dictionary node that ends a word
+	 * @return True if the word has been found, else false
+	 */
+	boolean isFound(int node) {
+		if (foundWords != null) {
+			return false;
+		}
+		AtomicLongArray page = foundPages.get(node >>> PAGE_BITS);
+		return page != null &&
+				(page.get((node & (PAGE_SIZE - 1)) >>> 6) & (1L << node)) != 0;
+	}
+
+	/**
+	 * Returns the number of words in the subtree of the given node that have
+	 * not been found yet. Words are only counted as found below a node if
+	 * they were marked along with a path through it, so if this tracker does
+	 * not track nodes, every word counts as remaining.
+	 *
+	 * @param node A dictionary node
+	 * @return The number of words remaining below node
+	 */
+	int getRemaining(int node) {
+		if (foundWords != null) {
+			return dictionary.getWordCount(node);
+		}
+		AtomicIntegerArray page = countPages.get(node >>> PAGE_BITS);
+		int found = page == null ? 0 : page.get(node & (PAGE_SIZE - 1));
+		return dictionary.getWordCount(node) - found;
+	}
+
+	/**
+	 * Returns true iff every word in the subtree of the given node has been
+	 * found, so that searching below it cannot find anything new
+	 *
+	 * @param node A dictionary node
+	 * @return True if no words remain below node, else false
+	 */
+	boolean isExhausted(int node) {
+		return getRemaining(node) == 0;
+	}
+}
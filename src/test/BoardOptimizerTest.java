@@ -0,0 +1,80 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.BoardOptimizer;
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.BogglePath;
+import main.OptimizationGoal;
+import main.OptimizerResult;
+import main.SolveMode;
+import main.Trie;
+
+public class BoardOptimizerTest {
+	
+	private static final String[] WORDS = {"cat", "cats", "scat", "act", "acts",
+			"tact", "tacts", "quit", "quite", "quiet", "tea", "teas", "seat",
+			"east", "eats", "sate", "seta", "state", "taste", "tastes", "states"};
+	
+	private Trie dictionary;
+	
+	@Before
+	public void initialize() {
+		dictionary = new Trie();
+		for (String word : WORDS) {
+			dictionary.insert(word);
+		}
+		dictionary.trimToSize();
+	}
+
+	/**
+	 * Test that the score reported for the best board is the total score of
+	 * its distinct words, and that every chain's evaluations are counted
+	 */
+	@Test
+	public void totalScore() {
+		BoardOptimizer optimizer = new BoardOptimizer(dictionary, 4, 4,
+				OptimizationGoal.TOTAL_SCORE);
+		OptimizerResult result = optimizer.optimize(3, 2000, 1, new ForkJoinPool(2));
+		BoggleBoard board = result.getBoard();
+		BoggleBot.solveBoardLinear(dictionary, board, SolveMode.UNIQUE_WORDS);
+		int score = 0;
+		for (BogglePath path : board.getSolutions()) {
+			score += path.getScore();
+		}
+		assertEquals(score, result.getScore());
+		assertTrue(result.getScore() > 0);
+		assertTrue(result.getEvaluations() > 3);
+		assertTrue(result.getEvaluations() <= 3 * 2001);
+	}
+
+	/**
+	 * Test that the word count reported for the best board is its number of
+	 * distinct scoring words, and that the same seed finds the same board
+	 */
+	@Test
+	public void wordCount() {
+		BoardOptimizer optimizer = new BoardOptimizer(dictionary, 3, 3,
+				OptimizationGoal.WORD_COUNT);
+		OptimizerResult result = optimizer.optimize(2, 1000, 5);
+		BoggleBoard board = result.getBoard();
+		BoggleBot.solveBoardLinear(dictionary, board, SolveMode.UNIQUE_WORDS, 3,
+				BoggleBot.NO_MAX_LENGTH);
+		assertEquals(board.getSolutions().size(), result.getScore());
+		assertEquals(board.toString(), optimizer.optimize(2, 1000, 5).getBoard().toString());
+	}
+
+	/**
+	 * Test that optimizing without a chain is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void noChains() {
+		new BoardOptimizer(dictionary, 4, 4, OptimizationGoal.TOTAL_SCORE).optimize(0, 10, 1);
+	}
+}
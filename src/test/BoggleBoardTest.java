@@ -2,10 +2,13 @@ package test;
 
 import static org.junit.Assert.*;
 
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import main.BoggleBoard;
+import main.Point;
 
 public class BoggleBoardTest {
 	
@@ -13,14 +16,15 @@ public class BoggleBoardTest {
 	
 	@Before
 	public void initialize() {
-		char[][] letters = {{'a', 'b', 'c'},
-							{'d', 'e', 'f'},
-							{'g', 'h', 'i'}};
+		String[][] letters = {{"A", "B", "C"},
+							  {"D", "E", "F"},
+							  {"G", "H", "I"}};
 		board = new BoggleBoard(letters);
 	}
 	
 	/**
-	 * Test that a randomly created board will only contain letters
+	 * Test that a randomly created board will only contain upper case
+	 * letters, with "Q" always followed by "u"
 	 */
 	@Test
 	public void constructRandomBoard() {
@@ -28,8 +32,12 @@ public class BoggleBoardTest {
 		String boardString = new BoggleBoard(3, 3).toString()
 				.replaceAll("\\s+", "");
 		for (int i = 0; i < boardString.length(); i++) {
-			assertTrue('a' <= boardString.charAt(i) && 
-					boardString.charAt(i) <= 'z');
+			char c = boardString.charAt(i);
+			if (c == 'u') {
+				assertTrue(i > 0 && boardString.charAt(i - 1) == 'Q');
+			} else {
+				assertTrue('A' <= c && c <= 'Z');
+			}
 		}
 	}
 
@@ -38,8 +46,38 @@ public class BoggleBoardTest {
 	 */
 	@Test
 	public void boardToString() {
-		String answer = "a b c \nd e f \ng h i \n";
+		String answer = "A B C \nD E F \nG H I \n";
 		assertEquals(answer, board.toString());
 	}
 
+	/**
+	 * Test that corner, edge and interior spaces have the correct neighbors
+	 */
+	@Test
+	public void adjacentPoints() {
+		assertEquals(3, board.getAdjPoints(new Point(0, 0)).size());
+		assertEquals(5, board.getAdjPoints(new Point(1, 0)).size());
+		List<Point> adjPoints = board.getAdjPoints(new Point(1, 1));
+		assertEquals(8, adjPoints.size());
+		for (int x = 0; x < 3; x++) {
+			for (int y = 0; y < 3; y++) {
+				assertEquals(x != 1 || y != 1, 
+						adjPoints.contains(new Point(x, y)));
+			}
+		}
+	}
+	
+	/**
+	 * Test that neighbors are correct on a board that is not square
+	 */
+	@Test
+	public void adjacentPointsNonSquare() {
+		BoggleBoard wideBoard = new BoggleBoard(5, 2);
+		List<Point> adjPoints = wideBoard.getAdjPoints(new Point(4, 1));
+		assertEquals(3, adjPoints.size());
+		assertTrue(adjPoints.contains(new Point(3, 0)));
+		assertTrue(adjPoints.contains(new Point(4, 0)));
+		assertTrue(adjPoints.contains(new Point(3, 1)));
+	}
+
 }
@@ -0,0 +1,467 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.BogglePath;
+import main.Dawg;
+import main.Point;
+import main.ScoringTable;
+import main.SolveStatistics;
+import main.SolveMode;
+import main.Trie;
+
+public class BoggleBotTest {
+
+	private static final String[] WORDS = {"cat", "quit", "quite", "tea",
+			"sit", "ate", "eat", "dog"};
+
+	private Trie dictionary;
+	private BoggleBoard board;
+
+	@Before
+	public void initialize() {
+		dictionary = new Trie();
+		for (String word : WORDS) {
+			dictionary.insert(word);
+		}
+		String[][] letters = {{"C", "A", "T"},
+							  {"X", "Qu", "E"},
+							  {"S", "I", "T"}};
+		board = new BoggleBoard(letters);
+	}
+
+	/**
+	 * Test that the linear solver finds every path of every word, including
+	 * words that use a "Qu" tile
+	 */
+	@Test
+	public void solveLinear() {
+		BoggleBot.solveBoardLinear(dictionary, board);
+		List<String> words = board.getSolutionWords();
+		Collections.sort(words);
+		assertEquals("[ate, cat, eat, quit, quite, sit, tea, tea]",
+				words.toString());
+	}
+
+	/**
+	 * Test that solving from a single point only finds words starting there,
+	 * and that the paths found spell their words
+	 */
+	@Test
+	public void solveFromPoint() {
+		BoggleBot.solveBoardFromPoint(dictionary, board, new Point(1, 1));
+		List<BogglePath> solutions = board.getSolutions();
+		assertEquals(2, solutions.size());
+		for (BogglePath path : solutions) {
+			assertEquals(new Point(1, 1), path.getPoints().get(0));
+			assertEquals(path.getWord(),
+					board.getWord(path.getPoints()).toLowerCase());
+		}
+	}
+
+	/**
+	 * Test that the parallel solver finds the same solutions as the linear
+	 * solver, and that solving twice does not store duplicate paths
+	 */
+	@Test
+	public void solveParallel() {
+		BoggleBot.solveBoard(dictionary, board);
+		BoggleBot.solveBoard(dictionary, board);
+		List<String> words = board.getSolutionWords();
+		Collections.sort(words);
+		assertEquals("[ate, cat, eat, quit, quite, sit, tea, tea]",
+				words.toString());
+	}
+
+	/**
+	 * Test that the parallel solver finds the same paths as the linear solver
+	 * on a large board that is not square, with more threads than cores so
+	 * that searches are split into subtrees
+	 */
+	@Test
+	public void solveParallelSplit() {
+		String[][] letters = BoggleBoard.generateRandomBoard(23, 9, new Random(7));
+		for (int row = 0; row < letters.length; row += 2) {
+			letters[row] = new String[] {"C", "A", "T", "E", "A", "T", "E",
+					"Qu", "I", "T", "E", "A", "S", "I", "T", "E", "A", "T",
+					"C", "A", "T", "E", "A"};
+		}
+		BoggleBoard linear = new BoggleBoard(letters);
+		BoggleBot.solveBoardLinear(dictionary, linear);
+		BoggleBoard parallel = new BoggleBoard(letters);
+		ForkJoinPool pool = new ForkJoinPool(8);
+		try {
+			BoggleBot.solveBoard(dictionary, parallel, SolveMode.ALL_PATHS, 0,
+					BoggleBot.NO_MAX_LENGTH, pool);
+		} finally {
+			pool.shutdown();
+		}
+		assertFalse(linear.getSolutions().isEmpty());
+		assertEquals(new HashSet<List<Point>>(linear.getSolutionPoints()),
+				new HashSet<List<Point>>(parallel.getSolutionPoints()));
+		assertEquals(linear.getSolutions().size(), parallel.getSolutions().size());
+	}
+
+	/**
+	 * Test that solving a board one tile at a time finds every path exactly
+	 * once, including paths that cross from one tile into another
+	 */
+	@Test
+	public void solveTiled() {
+		String[][] letters = BoggleBoard.generateRandomBoard(23, 9, new Random(7));
+		for (int row = 0; row < letters.length; row += 2) {
+			letters[row] = new String[] {"C", "A", "T", "E", "A", "T", "E",
+					"Qu", "I", "T", "E", "A", "S", "I", "T", "E", "A", "T",
+					"C", "A", "T", "E", "A"};
+		}
+		BoggleBoard linear = new BoggleBoard(letters);
+		BoggleBot.solveBoardLinear(dictionary, linear);
+		BoggleBoard tiled = new BoggleBoard(letters);
+		BoggleBot.solveBoardTiled(dictionary, tiled, SolveMode.ALL_PATHS, 0,
+				BoggleBot.NO_MAX_LENGTH, 4);
+		assertEquals(new HashSet<List<Point>>(linear.getSolutionPoints()),
+				new HashSet<List<Point>>(tiled.getSolutionPoints()));
+		assertEquals(linear.getSolutions().size(), tiled.getSolutions().size());
+		for (BogglePath path : tiled.getSolutions()) {
+			assertSame(tiled, path.getBoard());
+		}
+	}
+
+	/**
+	 * Test that solving a batch of boards in one walk of the dictionary
+	 * finds the same paths in each board as solving them one at a time, and
+	 * that boards too large for the batch are still solved
+	 */
+	@Test
+	public void solveLockstep() {
+		Random random = new Random(11);
+		List<String[][]> letters = new ArrayList<String[][]>();
+		List<BoggleBoard> boards = new ArrayList<BoggleBoard>();
+		for (int i = 0; i < 50; i++) {
+			letters.add(BoggleBoard.generateRandomBoard(1 + i % 8, 1 + i % 5, random));
+		}
+		letters.add(new String[][] {{"C", "A", "T"}, {"X", "Qu", "E"}, {"S", "I", "T"}});
+		letters.add(BoggleBoard.generateRandomBoard(9, 9, random));
+		for (String[][] board : letters) {
+			boards.add(new BoggleBoard(board));
+		}
+		BoggleBot.solveBoardsLockstep(dictionary, boards);
+		for (int i = 0; i < letters.size(); i++) {
+			BoggleBoard expected = new BoggleBoard(letters.get(i));
+			BoggleBot.solveBoardLinear(dictionary, expected);
+			assertEquals(new HashSet<List<Point>>(expected.getSolutionPoints()),
+					new HashSet<List<Point>>(boards.get(i).getSolutionPoints()));
+		}
+		List<String> words = boards.get(50).getSolutionWords();
+		Collections.sort(words);
+		assertEquals("[ate, cat, eat, quit, quite, sit, tea, tea]",
+				words.toString());
+	}
+
+	/**
+	 * Test that searching for each word in turn finds the same paths as
+	 * searching from each space, and one path per word for unique words, and
+	 * that a parallel solve of a large board with a small dictionary, which
+	 * may be solved word by word, does too
+	 */
+	@Test
+	public void solveWordDriven() {
+		String[][] letters = BoggleBoard.generateRandomBoard(40, 40, new Random(13));
+		for (int row = 0; row < letters.length; row += 3) {
+			for (int x = 0; x + 4 < letters[row].length; x += 9) {
+				letters[row][x] = "Qu";
+				letters[row][x + 1] = "I";
+				letters[row][x + 2] = "T";
+				letters[row][x + 3] = "E";
+			}
+		}
+		BoggleBoard linear = new BoggleBoard(letters);
+		BoggleBot.solveBoardLinear(dictionary, linear);
+		BoggleBoard wordDriven = new BoggleBoard(letters);
+		BoggleBot.solveBoardWordDriven(dictionary, wordDriven, SolveMode.ALL_PATHS, 0,
+				BoggleBot.NO_MAX_LENGTH);
+		assertEquals(new HashSet<List<Point>>(linear.getSolutionPoints()),
+				new HashSet<List<Point>>(wordDriven.getSolutionPoints()));
+		assertEquals(linear.getSolutions().size(), wordDriven.getSolutions().size());
+		BoggleBoard parallel = new BoggleBoard(letters);
+		BoggleBot.solveBoard(dictionary, parallel);
+		assertEquals(new HashSet<List<Point>>(linear.getSolutionPoints()),
+				new HashSet<List<Point>>(parallel.getSolutionPoints()));
+		
+		BoggleBoard unique = new BoggleBoard(letters);
+		BoggleBot.solveBoardWordDriven(dictionary, unique, SolveMode.UNIQUE_WORDS, 4,
+				BoggleBot.NO_MAX_LENGTH);
+		List<String> words = unique.getSolutionWords();
+		Collections.sort(words);
+		assertEquals("[quit, quite]", words.toString());
+	}
+
+	/**
+	 * Test that replacing tiles one at a time keeps the stored solutions the
+	 * same as solving the changed board from scratch
+	 */
+	@Test
+	public void replaceTile() {
+		Random random = new Random(17);
+		for (SolveMode mode : SolveMode.values()) {
+			BoggleBoard edited = new BoggleBoard(BoggleBoard.generateRandomBoard(6, 5, random));
+			BoggleBot.solveBoardLinear(dictionary, edited, mode);
+			for (int i = 0; i < 60; i++) {
+				String tile = i % 3 == 0 ? "Qu" : "TEACIS".substring(i % 6, i % 6 + 1);
+				BoggleBot.replaceTile(dictionary, edited,
+						new Point(random.nextInt(6), random.nextInt(5)), tile, mode, 0,
+						BoggleBot.NO_MAX_LENGTH);
+				String[][] letters = new String[5][6];
+				for (int y = 0; y < 5; y++) {
+					for (int x = 0; x < 6; x++) {
+						letters[y][x] = edited.get(x, y);
+					}
+				}
+				BoggleBoard expected = new BoggleBoard(letters);
+				BoggleBot.solveBoardLinear(dictionary, expected, mode);
+				if (mode == SolveMode.ALL_PATHS) {
+					assertEquals(new HashSet<List<Point>>(expected.getSolutionPoints()),
+							new HashSet<List<Point>>(edited.getSolutionPoints()));
+				} else {
+					assertEquals(expected.getSolutionsByWord().keySet(),
+							edited.getSolutionsByWord().keySet());
+				}
+				assertEquals(expected.getSolutions().size(), edited.getSolutions().size());
+			}
+		}
+	}
+
+	/**
+	 * Test that stored solutions, which view the board's packed storage,
+	 * equal the same paths built point by point, that duplicates are dropped,
+	 * and that extending a stored path leaves the storage unchanged
+	 */
+	@Test
+	public void storedPaths() {
+		BoggleBot.solveBoardLinear(dictionary, board);
+		BogglePath quite = new BogglePath(board, new Point(1, 1));
+		quite.addPoint(new Point(1, 2));
+		quite.addPoint(new Point(2, 2));
+		quite.addPoint(new Point(2, 1));
+		assertEquals("quite", quite.getWord());
+		List<BogglePath> solutions = board.getSolutions();
+		assertTrue(solutions.contains(quite));
+		BogglePath stored = solutions.get(solutions.indexOf(quite));
+		assertEquals(quite.hashCode(), stored.hashCode());
+		assertEquals(quite.getPoints(), stored.getPoints());
+		assertEquals(quite.getLastPoint(), stored.getLastPoint());
+		assertTrue(stored.containsPoint(new Point(2, 2)));
+		assertFalse(stored.containsPoint(new Point(0, 0)));
+
+		board.addSolution(quite);
+		assertEquals(solutions.size(), board.getSolutions().size());
+
+		BogglePath quit = new BogglePath(board, new Point(1, 1));
+		quit.addPoint(new Point(1, 2));
+		quit.addPoint(new Point(2, 2));
+		BogglePath extended = new BogglePath(solutions.get(solutions.indexOf(quit)));
+		extended.addPoint(new Point(2, 1));
+		extended.addPoint(new Point(2, 0));
+		assertEquals("quitet", extended.getWord());
+		assertEquals(solutions, board.getSolutions());
+		assertFalse(board.getSolutions().contains(extended));
+	}
+
+	/**
+	 * Test that counting and scoring a board agree with the unique words a
+	 * solve stores, by node in a trie and by rank in a dawg
+	 */
+	@Test
+	public void countAndScore() {
+		assertEquals(7, BoggleBot.countWords(dictionary, board));
+		assertEquals(8, BoggleBot.scoreBoard(dictionary, board));
+		assertEquals(1, BoggleBot.countWords(dictionary, board, 4, 4));
+		assertEquals(24, BoggleBot.scoreBoard(dictionary, board,
+				new ScoringTable(0, 1, 2, 3, 4, 5)));
+		assertTrue(board.getSolutions().isEmpty());
+		
+		String[] sorted = WORDS.clone();
+		Arrays.sort(sorted);
+		Dawg.Builder builder = new Dawg.Builder();
+		for (String word : sorted) {
+			builder.add(word);
+		}
+		Dawg dawg = builder.build();
+		Random random = new Random(23);
+		for (int i = 0; i < 50; i++) {
+			String[][] letters = BoggleBoard.generateRandomBoard(5, 4, random);
+			BoggleBoard solved = new BoggleBoard(letters);
+			BoggleBot.solveBoardLinear(dictionary, solved, SolveMode.UNIQUE_WORDS);
+			int score = 0;
+			for (BogglePath path : solved.getSolutions()) {
+				score += path.getScore();
+			}
+			BoggleBoard tallied = new BoggleBoard(letters);
+			assertEquals(solved.getSolutions().size(), BoggleBot.countWords(dictionary, tallied));
+			assertEquals(score, BoggleBot.scoreBoard(dictionary, tallied));
+			assertEquals(solved.getSolutions().size(), BoggleBot.countWords(dawg, tallied));
+			assertEquals(score, BoggleBot.scoreBoard(dawg, tallied));
+		}
+	}
+
+	/**
+	 * Test that a top-K solve returns the best distinct words in score order,
+	 * and that the longest word and word lengths are found without a solve
+	 */
+	@Test
+	public void solveTopK() {
+		List<BogglePath> top = BoggleBot.solveBoardTopK(dictionary, board, 3);
+		assertEquals(3, top.size());
+		assertEquals("quite", top.get(0).getWord());
+		assertEquals(1, top.get(2).getScore());
+		assertEquals(3, new HashSet<String>(Arrays.asList(top.get(0).getWord(),
+				top.get(1).getWord(), top.get(2).getWord())).size());
+		for (BogglePath path : top) {
+			assertEquals(path.getWord(), board.getWord(path.getPoints()).toLowerCase());
+		}
+		assertEquals(7, BoggleBot.solveBoardTopK(dictionary, board, 20).size());
+		List<BogglePath> fourLetters = BoggleBot.solveBoardTopK(dictionary, board, 20, 4, 4);
+		assertEquals(1, fourLetters.size());
+		assertEquals("quit", fourLetters.get(0).getWord());
+		assertTrue(board.getSolutions().isEmpty());
+		
+		assertEquals("quite", BoggleBot.longestWord(dictionary, board).getWord());
+		assertTrue(BoggleBot.hasAnyWordOfLength(dictionary, board, 4));
+		assertTrue(BoggleBot.hasAnyWordOfLength(dictionary, board, 5));
+		assertFalse(BoggleBot.hasAnyWordOfLength(dictionary, board, 6));
+		assertNull(BoggleBot.longestWord(dictionary, new BoggleBoard(new String[][] {{"X"}})));
+	}
+
+	/**
+	 * Test that a solve reports its statistics, whose counts either agree
+	 * with the solutions stored or, if counters are disabled, are all 0
+	 */
+	@Test
+	public void solveStatistics() {
+		SolveStatistics statistics = BoggleBot.solveBoardLinear(dictionary, board);
+		assertEquals("linear", statistics.getStrategy());
+		assertTrue(statistics.getElapsedNanos() > 0);
+		if (statistics.isEnabled()) {
+			assertEquals(board.getSolutions().size(), statistics.getSolutions());
+			assertEquals(2, statistics.getSolutions(new Point(1, 1)));
+			assertTrue(statistics.getNodesExpanded() >= board.getSolutions().size());
+			assertTrue(statistics.getPrefixRejections() > 0);
+		} else {
+			assertEquals(0, statistics.getSolutions());
+			assertEquals(0, statistics.getNodesExpanded());
+		}
+		
+		BoggleBoard parallel = new BoggleBoard(new String[][] {
+				{"C", "A", "T"}, {"X", "Qu", "E"}, {"S", "I", "T"}});
+		SolveStatistics parallelStatistics = BoggleBot.solveBoard(dictionary, parallel);
+		assertEquals("parallel", parallelStatistics.getStrategy());
+		assertEquals(statistics.getSolutions(), parallelStatistics.getSolutions());
+		assertEquals(statistics.getNodesExpanded(), parallelStatistics.getNodesExpanded());
+		
+		SolveStatistics wordStatistics = BoggleBot.solveBoardWordDriven(dictionary,
+				new BoggleBoard(3, 3), SolveMode.ALL_PATHS, 0, BoggleBot.NO_MAX_LENGTH);
+		assertEquals("word-driven", wordStatistics.getStrategy());
+		assertTrue(wordStatistics.getElapsedNanos() > 0);
+	}
+
+	/**
+	 * Test that a streamed solve publishes every path, one request at a time,
+	 * without storing them in the board
+	 */
+	@Test
+	public void solveStream() throws Exception {
+		List<String> words = Collections.synchronizedList(new ArrayList<String>());
+		CompletableFuture<Void> done = new CompletableFuture<Void>();
+		BoggleBot.solveBoardStream(dictionary, board, SolveMode.ALL_PATHS, 0,
+				BoggleBot.NO_MAX_LENGTH).subscribe(new Flow.Subscriber<BogglePath>() {
+			private Flow.Subscription subscription;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				this.subscription = subscription;
+				subscription.request(1);
+			}
+
+			@Override
+			public void onNext(BogglePath path) {
+				words.add(path.getWord());
+				subscription.request(1);
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				done.completeExceptionally(error);
+			}
+
+			@Override
+			public void onComplete() {
+				done.complete(null);
+			}
+		});
+		done.get(10, TimeUnit.SECONDS);
+		Collections.sort(words);
+		assertEquals("[ate, cat, eat, quit, quite, sit, tea, tea]",
+				words.toString());
+		assertTrue(board.getSolutions().isEmpty());
+	}
+
+	/**
+	 * Test that solving for unique words stores exactly one path per word,
+	 * both linearly and in parallel
+	 */
+	@Test
+	public void solveUniqueWords() {
+		BoggleBot.solveBoardLinear(dictionary, board, SolveMode.UNIQUE_WORDS);
+		List<String> words = board.getSolutionWords();
+		Collections.sort(words);
+		assertEquals("[ate, cat, eat, quit, quite, sit, tea]", words.toString());
+		assertEquals(words, 
+				new ArrayList<String>(board.getSolutionsByWord().keySet()));
+		
+		BoggleBoard parallelBoard = new BoggleBoard(new String[][] {
+				{"C", "A", "T"}, {"X", "Qu", "E"}, {"S", "I", "T"}});
+		BoggleBot.solveBoard(dictionary, parallelBoard, SolveMode.UNIQUE_WORDS);
+		assertEquals(words.size(), parallelBoard.getSolutions().size());
+	}
+
+	/**
+	 * Test that word length limits are applied when solving, counting both
+	 * letters of a "Qu" tile
+	 */
+	@Test
+	public void solveWithLengthLimits() {
+		BoggleBot.solveBoardLinear(dictionary, board, SolveMode.ALL_PATHS, 4, 4);
+		assertEquals("[quit]", board.getSolutionWords().toString());
+		
+		BoggleBoard uniqueBoard = new BoggleBoard(new String[][] {
+				{"C", "A", "T"}, {"X", "Qu", "E"}, {"S", "I", "T"}});
+		BoggleBot.solveBoard(dictionary, uniqueBoard, SolveMode.UNIQUE_WORDS, 
+				5, BoggleBot.NO_MAX_LENGTH);
+		assertEquals("[quite]", uniqueBoard.getSolutionWords().toString());
+	}
+	
+	/**
+	 * Test that an empty range of word lengths is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void solveWithInvalidLengthLimits() {
+		BoggleBot.solveBoardLinear(dictionary, board, SolveMode.ALL_PATHS, 5, 4);
+	}
+
+}
@@ -0,0 +1,101 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.BoggleSolverService;
+import main.SolveMode;
+import main.SolverStats;
+import main.Trie;
+
+public class BoggleSolverServiceTest {
+
+	private static final String[] WORDS = {"cat", "quit", "quite", "tea",
+			"sit", "ate", "eat", "dog"};
+
+	private Trie dictionary;
+	private BoggleSolverService service;
+
+	@Before
+	public void initialize() {
+		dictionary = new Trie();
+		for (String word : WORDS) {
+			dictionary.insert(word);
+		}
+		service = new BoggleSolverService(dictionary, 4);
+	}
+
+	@After
+	public void close() {
+		service.close();
+	}
+
+	/**
+	 * Test that every board submitted is solved as the linear solver would
+	 * solve it, and that its future completes with the board
+	 */
+	@Test
+	public void solveMany() {
+		Random random = new Random(3);
+		List<String[][]> letters = new ArrayList<String[][]>();
+		List<BoggleBoard> boards = new ArrayList<BoggleBoard>();
+		for (int i = 0; i < 200; i++) {
+			letters.add(BoggleBoard.generateRandomBoard(4 + i % 5, 4 + i % 3, random));
+			boards.add(new BoggleBoard(letters.get(i)));
+		}
+		List<CompletableFuture<BoggleBoard>> results = service.submitAll(boards);
+		for (int i = 0; i < boards.size(); i++) {
+			BoggleBoard solved = results.get(i).join();
+			assertSame(boards.get(i), solved);
+			BoggleBoard expected = new BoggleBoard(letters.get(i));
+			BoggleBot.solveBoardLinear(dictionary, expected);
+			List<String> words = solved.getSolutionWords();
+			List<String> expectedWords = expected.getSolutionWords();
+			Collections.sort(words);
+			Collections.sort(expectedWords);
+			assertEquals(expectedWords, words);
+		}
+		SolverStats stats = service.getStats();
+		assertEquals(200, stats.getBoardsSolved());
+		assertTrue(stats.getBoardsPerSecond() > 0);
+		assertTrue(stats.getP50LatencyNanos() > 0);
+		assertTrue(stats.getP50LatencyNanos() <= stats.getP99LatencyNanos());
+	}
+
+	/**
+	 * Test that solve settings are applied to each board
+	 */
+	@Test
+	public void solveWithSettings() {
+		String[][] letters = {{"C", "A", "T"},
+							  {"X", "Qu", "E"},
+							  {"S", "I", "T"}};
+		BoggleBoard board = service.submit(new BoggleBoard(letters),
+				SolveMode.UNIQUE_WORDS, 4, 5).join();
+		List<String> words = board.getSolutionWords();
+		Collections.sort(words);
+		assertEquals("[quit, quite]", words.toString());
+	}
+
+	/**
+	 * Test that a closed service accepts no more boards
+	 */
+	@Test(expected = RejectedExecutionException.class)
+	public void submitAfterClose() {
+		service.close();
+		service.submit(new BoggleBoard(4, 4));
+	}
+
+}
@@ -0,0 +1,97 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.Dawg;
+import main.Trie;
+
+public class DawgTest {
+	
+	private static final String[] WORDS = {"baking", "bake", "baker", "cake",
+			"caking", "making", "rake", "raking", "taking", "walking"};
+	
+	private Trie trie;
+	private Dawg dawg;
+	
+	@Before
+	public void initialize() {
+		trie = new Trie();
+		Dawg.Builder builder = new Dawg.Builder();
+		String[] sorted = WORDS.clone();
+		Arrays.sort(sorted);
+		for (String word : sorted) {
+			trie.insert(word);
+			builder.add(word);
+		}
+		trie.trimToSize();
+		dawg = builder.build();
+	}
+
+	/**
+	 * Test that the DAWG answers every query the same way as a trie holding
+	 * the same words
+	 */
+	@Test
+	public void matchesTrie() {
+		assertEquals(trie.getWordCount(trie.getRoot()),
+				dawg.getWordCount(dawg.getRoot()));
+		for (String word : WORDS) {
+			assertTrue(dawg.containsWord(word));
+			for (int i = 0; i <= word.length(); i++) {
+				String prefix = word.substring(0, i);
+				assertTrue(dawg.containsPrefix(prefix));
+				assertEquals(trie.containsWord(prefix), dawg.containsWord(prefix));
+				int trieNode = trie.step(trie.getRoot(), prefix);
+				int dawgNode = dawg.step(dawg.getRoot(), prefix);
+				assertEquals(trie.getRequiredLetters(trieNode), dawg.getRequiredLetters(dawgNode));
+				assertEquals(trie.getRepeatedLetters(trieNode), dawg.getRepeatedLetters(dawgNode));
+			}
+		}
+		assertFalse(dawg.containsWord("ake"));
+		assertFalse(dawg.containsWord("bakin"));
+		assertFalse(dawg.containsPrefix("makes"));
+		assertFalse(dawg.containsPrefix("waking"));
+	}
+	
+	/**
+	 * Test that shared suffixes are only stored once
+	 */
+	@Test
+	public void sharesSuffixes() {
+		assertTrue(dawg.getNodeCount() < trie.getNodeCount() / 2);
+		assertFalse(dawg.hasPrefixNodes());
+		// "e" and "ing" are the only completions of both "cak" and "rak"
+		assertEquals(dawg.step(dawg.getRoot(), "cak"),
+				dawg.step(dawg.getRoot(), "rak"));
+		// "ing" is the only completion of both "mak" and "walk"
+		assertEquals(dawg.step(dawg.getRoot(), "mak"),
+				dawg.step(dawg.getRoot(), "walk"));
+	}
+	
+	/**
+	 * Test that words added out of order are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void unsortedAdd() {
+		Dawg.Builder builder = new Dawg.Builder();
+		builder.add("zoo");
+		builder.add("apple");
+	}
+	
+	/**
+	 * Test that a built DAWG cannot be added to
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void addAfterBuild() {
+		Dawg.Builder builder = new Dawg.Builder();
+		builder.add("apple");
+		builder.build();
+		builder.add("zoo");
+	}
+
+}
@@ -2,9 +2,20 @@ package test;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.BogglePath;
+import main.Dictionary;
 import main.DictionaryParser;
+import main.SolveMode;
 import main.Trie;
 
 public class DictionaryParserTest {
@@ -15,8 +26,79 @@ public class DictionaryParserTest {
 	 */
 	@Test
 	public void dictionaryParser() {
-		Trie trie = DictionaryParser.parseDictionary("src/main/resources/dictionary.txt");
+		Trie trie = DictionaryParser.parseFile("src/main/resources/dictionary.txt", 0);
 		assertTrue(trie.containsWord("apple"));
+		assertTrue(trie.containsWord("aa"));
+		Trie longWords = DictionaryParser.parseDictionary(3);
+		assertTrue(longWords.containsWord("apple"));
+		assertFalse(longWords.containsWord("aa"));
+	}
+
+	/**
+	 * Test that lines holding characters other than letters are skipped
+	 * rather than stopping the rest of the file from loading
+	 */
+	@Test
+	public void skipsNonLetterLines() throws IOException {
+		File words = File.createTempFile("words", ".txt");
+		words.deleteOnExit();
+		PrintWriter writer = new PrintWriter(words);
+		try {
+			writer.println("apple");
+			writer.println("don't");
+			writer.println("pear");
+			writer.println("well-known");
+			writer.println("plum");
+		} finally {
+			writer.close();
+		}
+		Trie trie = DictionaryParser.parseFile(words.getPath(), 0);
+		assertEquals(3, trie.getWordCount(trie.getRoot()));
+		assertTrue(trie.containsWord("apple"));
+		assertTrue(trie.containsWord("pear"));
+		assertTrue(trie.containsWord("plum"));
+		assertFalse(trie.containsPrefix("don"));
+		Dictionary dawg = DictionaryParser.parseFileDawg(words.getPath(), 0);
+		assertEquals(3, dawg.getWordCount(dawg.getRoot()));
+		assertTrue(dawg.containsWord("plum"));
+	}
+
+	/**
+	 * Test that the shared dictionary is only loaded once and contains words
+	 * of every length
+	 */
+	@Test
+	public void sharedDictionary() {
+		Dictionary dictionary = DictionaryParser.getSharedDictionary();
+		assertSame(dictionary, DictionaryParser.getSharedDictionary());
+		assertSame(dictionary, DictionaryParser.loadSharedDictionary().join());
+		assertTrue(dictionary.containsWord("apple"));
+		assertTrue(dictionary.containsWord("aa"));
+	}
+
+	/**
+	 * Test that word lengths given at solve time select exactly the words of
+	 * the shared dictionary's full solve that lie within them
+	 */
+	@Test
+	public void solveTimeLengths() {
+		Dictionary dictionary = DictionaryParser.getSharedDictionary();
+		String[][] letters = BoggleBoard.generateRandomBoard(6, 6);
+		BoggleBoard all = new BoggleBoard(letters);
+		BoggleBot.solveBoardLinear(dictionary, all);
+		Set<String> expected = new HashSet<String>();
+		for (BogglePath path : all.getSolutions()) {
+			if (path.getWord().length() >= 4 && path.getWord().length() <= 6) {
+				expected.add(path.getWord());
+			}
+		}
+		BoggleBoard limited = new BoggleBoard(letters);
+		BoggleBot.solveBoardLinear(dictionary, limited, SolveMode.ALL_PATHS, 4, 6);
+		Set<String> found = new HashSet<String>();
+		for (BogglePath path : limited.getSolutions()) {
+			found.add(path.getWord());
+		}
+		assertEquals(expected, found);
 	}
 
 }
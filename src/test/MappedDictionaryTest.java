@@ -0,0 +1,69 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.Dictionary;
+import main.MappedDictionary;
+import main.Trie;
+
+public class MappedDictionaryTest {
+	
+	private static final String[] WORDS = {"california", "call", "calamari",
+			"alpha", "alphabet", "zoo"};
+	
+	private Trie trie;
+	private File image;
+	
+	@Before
+	public void initialize() throws IOException {
+		trie = new Trie();
+		for (String word : WORDS) {
+			trie.insert(word);
+		}
+		trie.trimToSize();
+		image = File.createTempFile("dictionary", ".img");
+		image.deleteOnExit();
+	}
+
+	/**
+	 * Test that a mapped image answers every query the same way as the trie
+	 * it was written from
+	 */
+	@Test
+	public void matchesTrie() throws IOException {
+		MappedDictionary.write(trie, image.getPath());
+		Dictionary mapped = new MappedDictionary(image.getPath());
+		assertEquals(trie.getNodeCount(), mapped.getNodeCount());
+		for (String word : WORDS) {
+			assertTrue(mapped.containsWord(word));
+			for (int i = 0; i <= word.length(); i++) {
+				String prefix = word.substring(0, i);
+				assertTrue(mapped.containsPrefix(prefix));
+				assertEquals(trie.containsWord(prefix), mapped.containsWord(prefix));
+				assertEquals(trie.getWordCount(trie.step(trie.getRoot(), prefix)),
+						mapped.getWordCount(mapped.step(mapped.getRoot(), prefix)));
+				assertEquals(trie.getRequiredLetters(trie.step(trie.getRoot(), prefix)),
+						mapped.getRequiredLetters(mapped.step(mapped.getRoot(), prefix)));
+				assertEquals(trie.getRepeatedLetters(trie.step(trie.getRoot(), prefix)),
+						mapped.getRepeatedLetters(mapped.step(mapped.getRoot(), prefix)));
+			}
+		}
+		assertFalse(mapped.containsPrefix("calz"));
+		assertFalse(mapped.containsWord("zo"));
+	}
+	
+	/**
+	 * Test that files that are not images are rejected
+	 */
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException {
+		new MappedDictionary(image.getPath());
+	}
+
+}
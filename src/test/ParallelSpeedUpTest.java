@@ -4,6 +4,10 @@ import main.BoggleBot;
 import main.DictionaryParser;
 import main.Trie;
 
+/**
+ * Rough comparison of parallel and linear solve times. For measurements that
+ * can be trusted, run the JMH benchmarks in the benchmarks module.
+ */
 public class ParallelSpeedUpTest {
 	private static final int[] BOARD_SIZES = {4, 10, 20, 50, 100};
 	private static final int NUM_RUNS = 3;
@@ -23,10 +27,14 @@ public class ParallelSpeedUpTest {
 			long totalParallelTime = 0;
 			long totalLinearTime = 0;
 			for (int i = 0; i < NUM_RUNS; i++) {
-				BoggleBoard board = new BoggleBoard(size, size);
+				// Solve separate copies of the board, so that the second solve
+				// does not find its solutions already stored by the first
+				String[][] letters = BoggleBoard.generateRandomBoard(size, size);
+				BoggleBoard board = new BoggleBoard(letters);
 				long startTime = System.currentTimeMillis();
 				BoggleBot.solveBoard(dictionary, board);
 				totalParallelTime += System.currentTimeMillis() - startTime;
+				board = new BoggleBoard(letters);
 				startTime = System.currentTimeMillis();
 				BoggleBot.solveBoardLinear(dictionary, board);
 				totalLinearTime += System.currentTimeMillis() - startTime;
@@ -0,0 +1,258 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.BoggleBoard;
+import main.BoggleBot;
+import main.BogglePath;
+import main.Dawg;
+import main.Dictionary;
+import main.Point;
+import main.ScoringTable;
+import main.SolveMode;
+import main.TileAlphabet;
+import main.Trie;
+
+public class TileAlphabetTest {
+
+	private static final String[] WORDS = {"the", "then", "there", "three", "thin",
+			"thine", "her", "here", "herein", "hen", "hint", "inert", "inn", "tin", "ten",
+			"tent", "net", "nether", "ether", "either", "other", "quit", "quite", "tie",
+			"tier", "rent", "tern", "enter", "entire"};
+
+	/**
+	 * Standard tiles plus "Th", "In", "Er" and "He", so that some words can be
+	 * split into tiles in more than one way
+	 */
+	private static final TileAlphabet ALPHABET = new TileAlphabet("A", "B", "C", "D", "E",
+			"F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P", "Qu", "R", "S", "T", "U",
+			"V", "W", "X", "Y", "Z", "Th", "In", "Er", "He");
+
+	private Trie trie;
+	private Dawg dawg;
+
+	@Before
+	public void initialize() {
+		trie = new Trie();
+		Dawg.Builder builder = new Dawg.Builder();
+		String[] sorted = WORDS.clone();
+		Arrays.sort(sorted);
+		for (String word : sorted) {
+			trie.insert(word);
+			builder.add(word);
+		}
+		trie.trimToSize();
+		dawg = builder.build();
+	}
+
+	/**
+	 * Test that the standard alphabet holds every capital letter with "Qu" in
+	 * place of "Q", and that boards only accept tiles of their alphabet
+	 */
+	@Test
+	public void standardTiles() {
+		assertEquals(26, TileAlphabet.STANDARD.size());
+		assertTrue(TileAlphabet.STANDARD.contains("Qu"));
+		assertFalse(TileAlphabet.STANDARD.contains("Q"));
+		assertSame(TileAlphabet.STANDARD, new BoggleBoard(2, 2).getAlphabet());
+		try {
+			new BoggleBoard(new String[][] {{"Th"}});
+			fail("Standard boards may not hold multi-letter tiles other than \"Qu\"");
+		} catch (IllegalArgumentException expected) {
+		}
+		BoggleBoard board = new BoggleBoard(new String[][] {{"Th", "E"}}, ALPHABET);
+		assertEquals("Th", board.get(0, 0));
+		try {
+			new BoggleBoard(new String[][] {{"Ng"}}, ALPHABET);
+			fail("Boards may only hold tiles of their alphabet");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	/**
+	 * Test that alphabets reject missing, empty, non-letter and duplicate
+	 * tiles
+	 */
+	@Test
+	public void invalidAlphabets() {
+		String[][] invalid = {{}, {"A", ""}, {"A", "3"}, {"Th", "TH"}, {"E", "e"}};
+		for (String[] tiles : invalid) {
+			try {
+				new TileAlphabet(tiles);
+				fail("Alphabet " + Arrays.toString(tiles) + " should be rejected");
+			} catch (IllegalArgumentException expected) {
+			}
+		}
+	}
+
+	/**
+	 * Test that every solver finds exactly the paths found by following each
+	 * tile's letters one at a time, on boards of multi-letter tiles, with a
+	 * trie and with a dawg
+	 */
+	@Test
+	public void solveMultiLetterTiles() {
+		Random random = new Random(5);
+		for (Dictionary dictionary : new Dictionary[] {trie, dawg}) {
+			for (int i = 0; i < 6; i++) {
+				String[][] letters = BoggleBoard.generateRandomBoard(6, 5, ALPHABET, random);
+				letters[i % 5] = new String[] {"Th", "E", "In", "Er", "He", "T"};
+				Set<List<Point>> expected = new HashSet<List<Point>>();
+				Set<String> words = new HashSet<String>();
+				BoggleBoard board = new BoggleBoard(letters, ALPHABET);
+				for (int y = 0; y < board.getHeight(); y++) {
+					for (int x = 0; x < board.getWidth(); x++) {
+						findPaths(dictionary, board, new ArrayList<Point>(
+								Collections.singletonList(new Point(x, y))), expected, words);
+					}
+				}
+				assertFalse(expected.isEmpty());
+
+				BoggleBoard linear = new BoggleBoard(letters, ALPHABET);
+				BoggleBot.solveBoardLinear(dictionary, linear);
+				assertPaths(expected, linear);
+				BoggleBoard parallel = new BoggleBoard(letters, ALPHABET);
+				BoggleBot.solveBoard(dictionary, parallel);
+				assertPaths(expected, parallel);
+				BoggleBoard wordDriven = new BoggleBoard(letters, ALPHABET);
+				BoggleBot.solveBoardWordDriven(dictionary, wordDriven, SolveMode.ALL_PATHS, 0,
+						BoggleBot.NO_MAX_LENGTH);
+				assertPaths(expected, wordDriven);
+				BoggleBoard tiled = new BoggleBoard(letters, ALPHABET);
+				BoggleBot.solveBoardTiled(dictionary, tiled, SolveMode.ALL_PATHS, 0,
+						BoggleBot.NO_MAX_LENGTH, 2);
+				assertPaths(expected, tiled);
+				BoggleBoard lockstep = new BoggleBoard(letters, ALPHABET);
+				BoggleBot.solveBoardsLockstep(dictionary, Arrays.asList(lockstep,
+						new BoggleBoard(BoggleBoard.generateRandomBoard(3, 3, random))));
+				assertPaths(expected, lockstep);
+
+				int score = 0;
+				for (String word : words) {
+					score += ScoringTable.STANDARD.getPoints(word.length());
+				}
+				assertEquals(words.size(), BoggleBot.countWords(dictionary, board));
+				assertEquals(score, BoggleBot.scoreBoard(dictionary, board));
+				for (SolveMode mode : new SolveMode[] {SolveMode.UNIQUE_WORDS}) {
+					BoggleBoard unique = new BoggleBoard(letters, ALPHABET);
+					BoggleBot.solveBoardLinear(dictionary, unique, mode);
+					assertEquals(words, unique.getSolutionsByWord().keySet());
+					assertEquals(words.size(), unique.getSolutions().size());
+					BoggleBoard uniqueWordDriven = new BoggleBoard(letters, ALPHABET);
+					BoggleBot.solveBoardWordDriven(dictionary, uniqueWordDriven, mode, 0,
+							BoggleBot.NO_MAX_LENGTH);
+					assertEquals(words, uniqueWordDriven.getSolutionsByWord().keySet());
+					assertEquals(words.size(), uniqueWordDriven.getSolutions().size());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test that replacing a tile with a multi-letter tile leaves the board
+	 * holding the paths of a board solved from scratch
+	 */
+	@Test
+	public void replaceMultiLetterTile() {
+		Random random = new Random(9);
+		BoggleBoard edited = new BoggleBoard(
+				BoggleBoard.generateRandomBoard(5, 5, ALPHABET, random), ALPHABET);
+		BoggleBot.solveBoardLinear(trie, edited);
+		String[] tiles = {"Th", "E", "In", "Er", "He", "N", "T", "R"};
+		for (int i = 0; i < 40; i++) {
+			BoggleBot.replaceTile(trie, edited, new Point(random.nextInt(5), random.nextInt(5)),
+					tiles[i % tiles.length], SolveMode.ALL_PATHS, 0, BoggleBot.NO_MAX_LENGTH);
+			String[][] letters = new String[5][5];
+			for (int y = 0; y < 5; y++) {
+				for (int x = 0; x < 5; x++) {
+					letters[y][x] = edited.get(x, y);
+				}
+			}
+			BoggleBoard expected = new BoggleBoard(letters, ALPHABET);
+			BoggleBot.solveBoardLinear(trie, expected);
+			assertEquals(new HashSet<List<Point>>(expected.getSolutionPoints()),
+					new HashSet<List<Point>>(edited.getSolutionPoints()));
+			assertEquals(expected.getSolutions().size(), edited.getSolutions().size());
+		}
+	}
+
+	/**
+	 * Test that words inserted into a trie between solves are found by the
+	 * next solve, including words reached through a "Qu" tile
+	 */
+	@Test
+	public void insertBetweenSolves() {
+		Trie growing = new Trie();
+		growing.insert("cat");
+		String[][] letters = {{"Qu", "I", "T"},
+							  {"C", "A", "E"}};
+		assertEquals(new HashSet<String>(Arrays.asList("cat")), solve(growing, letters));
+		growing.insert("quit");
+		assertEquals(new HashSet<String>(Arrays.asList("cat", "quit")),
+				solve(growing, letters));
+		growing.insert("quite");
+		growing.insert("quiet");
+		growing.trimToSize();
+		growing.insert("quietude");
+		assertEquals(new HashSet<String>(Arrays.asList("cat", "quit", "quite", "quiet")),
+				solve(growing, letters));
+		assertEquals(4, BoggleBot.countWords(growing, new BoggleBoard(letters)));
+	}
+
+	/**
+	 * Solves a board of the given letters with the given dictionary
+	 *
+	 * @return The words found
+	 */
+	private static Set<String> solve(Dictionary dictionary, String[][] letters) {
+		BoggleBoard board = new BoggleBoard(letters);
+		BoggleBot.solveBoardLinear(dictionary, board);
+		return board.getSolutionsByWord().keySet();
+	}
+
+	/**
+	 * Adds every path extending the given path that spells a word of the
+	 * given dictionary, following the letters of each tile one at a time
+	 */
+	private static void findPaths(Dictionary dictionary, BoggleBoard board, List<Point> path,
+			Set<List<Point>> paths, Set<String> words) {
+		String word = board.getWord(path).toLowerCase();
+		if (!dictionary.containsPrefix(word)) {
+			return;
+		}
+		if (dictionary.containsWord(word)) {
+			paths.add(new ArrayList<Point>(path));
+			words.add(word);
+		}
+		for (Point next : board.getAdjPoints(path.get(path.size() - 1))) {
+			if (!path.contains(next)) {
+				path.add(next);
+				findPaths(dictionary, board, path, paths, words);
+				path.remove(path.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Checks that the given board holds exactly the given paths, each once,
+	 * and that each spells its word
+	 */
+	private static void assertPaths(Set<List<Point>> expected, BoggleBoard board) {
+		assertEquals(expected, new HashSet<List<Point>>(board.getSolutionPoints()));
+		assertEquals(expected.size(), board.getSolutions().size());
+		for (BogglePath path : board.getSolutions()) {
+			assertEquals(board.getWord(path.getPoints()).toLowerCase(), path.getWord());
+		}
+	}
+}
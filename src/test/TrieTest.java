@@ -92,4 +92,142 @@ public class TrieTest {
 		assertTrue(trie.containsWord("alphabet"));
 	}
 	
+	/**
+	 * Test to make sure children inserted out of alphabetical order can all
+	 * be found, including after the trie has been trimmed, and that nodes
+	 * given children after trimming do not overwrite their neighbors
+	 */
+	@Test
+	public void unorderedInsertAndTrim() {
+		String[] words = {"zebra", "apple", "mango", "banana", "zoo", "art",
+				"kiwi"};
+		for (String word : words) {
+			trie.insert(word);
+		}
+		for (int pass = 0; pass < 2; pass++) {
+			for (String word : words) {
+				assertTrue(trie.containsWord(word));
+			}
+			assertFalse(trie.containsWord("ap"));
+			assertFalse(trie.containsPrefix("zz"));
+			trie.trimToSize();
+		}
+		trie.insert("apricot");
+		trie.insert("cherry");
+		assertTrue(trie.containsWord("apricot"));
+		assertTrue(trie.containsWord("cherry"));
+		for (String word : words) {
+			assertTrue(trie.containsWord(word));
+		}
+		trie.insert("ace");
+		trie.trimToSize();
+		trie.insert("aef");
+		assertTrue(trie.containsWord("aef"));
+		assertTrue(trie.containsWord("ace"));
+		assertFalse(trie.containsWord("zef"));
+		for (String word : words) {
+			assertTrue(word, trie.containsWord(word));
+		}
+	}
+	
+	/**
+	 * Test to make sure characters other than letters are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void insertNonLetter() {
+		trie.insert("don't");
+	}
+	
+	/**
+	 * Test to make sure lookups containing non-letters fail
+	 */
+	@Test
+	public void lookupNonLetter() {
+		trie.insert("dont");
+		assertFalse(trie.containsPrefix("do'"));
+		assertFalse(trie.containsWord("don't"));
+	}
+	
+	/**
+	 * Test to make sure stepping through nodes one letter or tile at a time
+	 * agrees with whole-string lookups
+	 */
+	@Test
+	public void stepThroughNodes() {
+		trie.insert("quit");
+		trie.insert("qua");
+		int node = trie.step(trie.getRoot(), "Qu");
+		assertTrue(node != Trie.NO_NODE);
+		assertFalse(trie.isWord(node));
+		assertTrue(trie.isWord(trie.step(node, 'a')));
+		node = trie.step(node, 'I');
+		assertFalse(trie.isWord(node));
+		assertTrue(trie.isWord(trie.step(node, 't')));
+		assertEquals(Trie.NO_NODE, trie.step(node, 'x'));
+		assertEquals(Trie.NO_NODE, trie.step(trie.getRoot(), "ab"));
+	}
+	
+	/**
+	 * Test to make sure every node counts the words in its subtree, and that
+	 * inserting a word twice does not count it twice
+	 */
+	@Test
+	public void subtreeWordCounts() {
+		trie.insert("tea");
+		trie.insert("team");
+		trie.insert("teams");
+		trie.insert("ten");
+		trie.insert("team");
+		assertEquals(4, trie.getWordCount(trie.getRoot()));
+		assertEquals(4, trie.getWordCount(trie.step(trie.getRoot(), "te")));
+		assertEquals(3, trie.getWordCount(trie.step(trie.getRoot(), "tea")));
+		assertEquals(1, trie.getWordCount(trie.step(trie.getRoot(), "teams")));
+		assertEquals(1, trie.getWordCount(trie.step(trie.getRoot(), "ten")));
+	}
+	
+	/**
+	 * Test that the longest word is measured over every branch of the trie
+	 */
+	@Test
+	public void maxWordLength() {
+		assertEquals(0, trie.getMaxWordLength());
+		trie.insert("tea");
+		trie.insert("zebras");
+		trie.insert("teams");
+		assertEquals(6, trie.getMaxWordLength());
+	}
+	
+	/**
+	 * Test that each node records the letters needed by every word below it,
+	 * once the trie has been trimmed, and nothing once it is modified again
+	 */
+	@Test
+	public void suffixLetters() {
+		trie.insert("banana");
+		trie.insert("bandana");
+		trie.trimToSize();
+		int ban = trie.step(trie.getRoot(), "ban");
+		assertEquals(mask("an"), trie.getRequiredLetters(ban));
+		assertEquals(mask("a"), trie.getRepeatedLetters(ban));
+		int band = trie.step(ban, 'd');
+		assertEquals(mask("an"), trie.getRequiredLetters(band));
+		assertEquals(mask("a"), trie.getRepeatedLetters(band));
+		assertEquals(mask("abn"), trie.getRequiredLetters(trie.getRoot()));
+		assertEquals(mask("an"), trie.getRepeatedLetters(trie.getRoot()));
+		assertEquals(0, trie.getRequiredLetters(trie.step(ban, "ana")));
+		trie.insert("by");
+		assertEquals(0, trie.getRequiredLetters(trie.getRoot()));
+	}
+	
+	/**
+	 * Returns the bit mask of the given letters
+	 */
+	private static int mask(String letters) {
+		int mask = 0;
+		for (char c : letters.toCharArray()) {
+			mask |= 1 << (c - 'a');
+		}
+		return mask;
+	}
+	
 }